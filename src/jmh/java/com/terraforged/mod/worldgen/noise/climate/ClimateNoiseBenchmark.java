@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.terraforged.mod.worldgen.noise.climate;
+
+import com.terraforged.mod.data.ModTerrains;
+import com.terraforged.mod.worldgen.biome.IBiomeSampler;
+import com.terraforged.mod.worldgen.noise.NoiseGenerator;
+import com.terraforged.mod.worldgen.terrain.TerrainLevels;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClimateNoiseBenchmark {
+    private static final int SEED = 1345;
+    private static final int POINTS = 4096;
+
+    private ClimateNoise climate;
+    private final ClimateSample sample = new ClimateSample();
+    private float[] points;
+    private int index;
+
+    @Setup
+    public void setup() {
+        var levels = new TerrainLevels();
+        var noise = new NoiseGenerator(levels, ModTerrains.Factory.getDefault(null));
+        climate = IBiomeSampler.createClimate(noise);
+
+        var random = new Random(SEED);
+        points = new float[POINTS * 2];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = random.nextInt(100_000) * levels.noiseLevels.frequency;
+        }
+    }
+
+    @Benchmark
+    public ClimateSample sample() {
+        int i = index;
+        index = (i + 2) & (POINTS * 2 - 1);
+        climate.sample(SEED, points[i], points[i + 1], sample.reset());
+        return sample;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.terraforged.mod.worldgen.noise.continent;
+
+import com.terraforged.mod.data.ModTerrains;
+import com.terraforged.mod.worldgen.noise.NoiseGenerator;
+import com.terraforged.mod.worldgen.noise.NoiseSample;
+import com.terraforged.mod.worldgen.terrain.TerrainLevels;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContinentBenchmark {
+    private static final int SEED = 1345;
+    private static final int POINTS = 4096;
+    private static final float RANGE = 64F;
+
+    private ContinentNoise continent;
+    private ContinentGenerator generator;
+    private final NoiseSample sample = new NoiseSample();
+    private float[] points;
+    private float[] noisePoints;
+    private int index;
+
+    @Setup
+    public void setup() {
+        var noise = new NoiseGenerator(new TerrainLevels(), ModTerrains.Factory.getDefault(null));
+        continent = (ContinentNoise) noise.getContinent();
+        generator = continent.generator;
+
+        // Points in continent (cell) space around the world offset, as ContinentNoise passes them
+        var offset = generator.getWorldOffset(SEED);
+        var random = new Random(SEED);
+        points = new float[POINTS * 2];
+        for (int i = 0; i < points.length; i += 2) {
+            points[i] = offset.x + random.nextFloat() * RANGE;
+            points[i + 1] = offset.y + random.nextFloat() * RANGE;
+        }
+
+        // The same spread of points in noise space, before the continent warp & scaling
+        noisePoints = new float[POINTS * 2];
+        for (int i = 0; i < noisePoints.length; i++) {
+            noisePoints[i] = random.nextFloat() * RANGE / continent.frequency;
+        }
+    }
+
+    private int next() {
+        int i = index;
+        index = (i + 2) & (POINTS * 2 - 1);
+        return i;
+    }
+
+    @Benchmark
+    public long getNearestCell() {
+        int i = next();
+        return generator.getNearestCell(SEED, points[i], points[i + 1]);
+    }
+
+    @Benchmark
+    public NoiseSample shapeSample() {
+        int i = next();
+        return generator.shapeGenerator.sample(SEED, points[i], points[i + 1], sample.reset());
+    }
+
+    @Benchmark
+    public NoiseSample riverSample() {
+        int i = next();
+        var sample = generator.shapeGenerator.sample(SEED, points[i], points[i + 1], this.sample.reset());
+        generator.riverGenerator.sample(SEED, points[i], points[i + 1], sample);
+        return sample;
+    }
+
+    @Benchmark
+    public NoiseSample continentSample() {
+        int i = next();
+        continent.sample(SEED, noisePoints[i], noisePoints[i + 1], sample.reset());
+        return sample;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.terraforged.mod.worldgen.noise.erosion;
+
+import com.terraforged.engine.settings.FilterSettings;
+import com.terraforged.engine.util.FastRandom;
+import com.terraforged.mod.data.ModTerrains;
+import com.terraforged.mod.worldgen.noise.NoiseGenerator;
+import com.terraforged.mod.worldgen.noise.NoiseSample;
+import com.terraforged.mod.worldgen.terrain.TerrainLevels;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErosionFilterBenchmark {
+    private static final int SEED = 1345;
+    private static final int CHUNK_X = 100;
+    private static final int CHUNK_Z = 100;
+
+    private final NoiseTileSize tileSize = new NoiseTileSize(2);
+    private final ErosionFilter.Resource resource = new ErosionFilter.Resource();
+    private final FastRandom random = new FastRandom();
+
+    private ErosionFilter filter;
+    private float[] source;
+    private float[] map;
+
+    @Setup
+    public void setup() {
+        // Matches ErodedNoiseGenerator
+        var settings = new FilterSettings.Erosion();
+        settings.dropletsPerChunk = 350;
+        filter = new ErosionFilter(tileSize.regionLength, settings);
+
+        var noise = new NoiseGenerator(new TerrainLevels(), ModTerrains.Factory.getDefault(null));
+        var blender = noise.getBlenderResource();
+        var sample = new NoiseSample();
+
+        source = new float[tileSize.regionLength * tileSize.regionLength];
+        map = new float[source.length];
+
+        int startX = (CHUNK_X + tileSize.chunkMin) << 4;
+        int startZ = (CHUNK_Z + tileSize.chunkMin) << 4;
+        for (int z = 0; z < tileSize.regionLength; z++) {
+            for (int x = 0; x < tileSize.regionLength; x++) {
+                float nx = noise.getNoiseCoord(startX + x);
+                float nz = noise.getNoiseCoord(startZ + z);
+                source[tileSize.indexOf(x, z)] = noise.sampleTerrain(SEED, nx, nz, sample.reset(), blender).heightNoise;
+            }
+        }
+    }
+
+    @Benchmark
+    public float[] apply() {
+        System.arraycopy(source, 0, map, 0, source.length);
+        filter.apply(SEED, CHUNK_X, CHUNK_Z, tileSize, resource, random, map);
+        return map;
+    }
+}
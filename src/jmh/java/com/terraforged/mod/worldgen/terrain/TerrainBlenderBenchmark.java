@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.terraforged.mod.worldgen.terrain;
+
+import com.terraforged.mod.data.ModTerrains;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TerrainBlenderBenchmark {
+    private static final int SEED = 1345;
+    private static final int POINTS = 4096;
+    private static final float BLENDING = 0.4F;
+
+    private TerrainBlender blender;
+    private TerrainBlender.Blender resource;
+    private float[] centrePoints;
+    private float[] blendPoints;
+    private int centreIndex;
+    private int blendIndex;
+
+    @Setup
+    public void setup() {
+        // Matches NoiseGenerator.createLandTerrain
+        blender = new TerrainBlender(45763218, 800, 0.8F, BLENDING, ModTerrains.Factory.getDefault(null));
+        resource = blender.getBlenderResource();
+
+        // Split sample points by which path Blender.getValue takes for them
+        var random = new Random(SEED);
+        var centre = new float[POINTS * 2];
+        var blend = new float[POINTS * 2];
+        int centreCount = 0;
+        int blendCount = 0;
+
+        while (centreCount < POINTS || blendCount < POINTS) {
+            float x = random.nextFloat() * 100_000;
+            float z = random.nextFloat() * 100_000;
+            blender.getValue(SEED, x, z, resource);
+
+            float dist0 = resource.getDistance(resource.closestIndex);
+            float dist1 = resource.getDistance(resource.closestIndex2);
+            float border = (dist0 + dist1) * 0.5F;
+            boolean isCentre = dist0 <= border - border * BLENDING;
+
+            if (isCentre && centreCount < POINTS) {
+                centre[centreCount * 2] = x;
+                centre[centreCount * 2 + 1] = z;
+                centreCount++;
+            } else if (!isCentre && blendCount < POINTS) {
+                blend[blendCount * 2] = x;
+                blend[blendCount * 2 + 1] = z;
+                blendCount++;
+            }
+        }
+
+        centrePoints = centre;
+        blendPoints = blend;
+    }
+
+    @Benchmark
+    public float centre() {
+        int i = centreIndex;
+        centreIndex = (i + 2) & (POINTS * 2 - 1);
+        return blender.getValue(SEED, centrePoints[i], centrePoints[i + 1], resource);
+    }
+
+    @Benchmark
+    public float blended() {
+        int i = blendIndex;
+        blendIndex = (i + 2) & (POINTS * 2 - 1);
+        return blender.getValue(SEED, blendPoints[i], blendPoints[i + 1], resource);
+    }
+}
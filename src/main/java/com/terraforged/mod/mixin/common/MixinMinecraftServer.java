@@ -0,0 +1,54 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.mixin.common;
+
+import com.terraforged.mod.hooks.LevelHook;
+import com.terraforged.mod.hooks.TickHook;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.progress.ChunkProgressListener;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.util.function.BooleanSupplier;
+
+@Mixin(MinecraftServer.class)
+public class MixinMinecraftServer {
+    @Inject(method = "tickChildren", at = @At("HEAD"))
+    private void onTickChildren(BooleanSupplier hasTimeLeft, CallbackInfo ci) {
+        TickHook.onServerTick((MinecraftServer) (Object) this);
+    }
+
+    @Inject(method = "createLevels", at = @At("TAIL"))
+    private void onCreateLevels(ChunkProgressListener listener, CallbackInfo ci) {
+        LevelHook.onLevelsCreated((MinecraftServer) (Object) this);
+    }
+
+    @Inject(method = "stopServer", at = @At("TAIL"))
+    private void onStopServer(CallbackInfo ci) {
+        LevelHook.onServerStopped((MinecraftServer) (Object) this);
+    }
+}
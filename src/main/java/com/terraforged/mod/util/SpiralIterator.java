@@ -57,8 +57,17 @@ public class SpiralIterator {
     public long next() {
         nextIndex();
 
-        int edge = i / length;
-        int step = i % length;
+        return getRingPosition(x, z, radius, i);
+    }
+
+    /**
+     * Returns the position at the given index of the ring at radius around x,z, in the same order the
+     * iterator visits them. A ring holds radius * 8 positions.
+     */
+    public static long getRingPosition(int x, int z, int radius, int index) {
+        int length = radius * 2;
+        int edge = index / length;
+        int step = index % length;
         int dx = -radius, dz = -radius;
 
         switch (edge) {
@@ -0,0 +1,76 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.terraforged.mod.util.storage;
+
+import com.terraforged.noise.util.NoiseUtil;
+
+/**
+ * A 16x16 map of floats stored as unsigned 16-bit fixed-point values relative to an integer offset.
+ * Values are floored onto the fixed-point grid so the integer part of a value is always preserved.
+ */
+public class FixedFloatMap {
+    private static final int MAX_VALUE = 0xFFFF;
+
+    private final Index index;
+    private final short[] data;
+    private final int offset;
+    private final float units;
+    private final float step;
+
+    public FixedFloatMap(int min, int max) {
+        this.index = Index.CHUNK;
+        this.data = new short[16 * 16];
+        this.offset = min;
+        this.units = getUnits(max - min);
+        this.step = 1F / units;
+    }
+
+    public Index index() {
+        return index;
+    }
+
+    public float get(int x, int z) {
+        return get(index.of(x, z));
+    }
+
+    public void set(int x, int z, float value) {
+        set(index.of(x, z), value);
+    }
+
+    public float get(int index) {
+        return (data[index] & MAX_VALUE) * step + offset;
+    }
+
+    public void set(int index, float value) {
+        int fixed = NoiseUtil.floor((value - offset) * units);
+        data[index] = (short) Math.max(0, Math.min(MAX_VALUE, fixed));
+    }
+
+    private static float getUnits(int range) {
+        // Power of two so that decoding is exact
+        return Integer.highestOneBit(Math.max(1, MAX_VALUE / Math.max(1, range + 1)));
+    }
+}
@@ -25,6 +25,10 @@
 package com.terraforged.mod.util.storage;
 
 public interface LongCache<T> {
+    /**
+     * Entries are matched on both the seed and the key so a value computed for one seed is never
+     * returned for another; a stale entry is replaced by the newly computed value.
+     */
     T computeIfAbsent(int seed, long key, SeededKeyFunction<T> function);
 
     interface SeededKeyFunction<T> {
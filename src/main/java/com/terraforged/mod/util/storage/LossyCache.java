@@ -36,6 +36,7 @@ import java.util.function.IntFunction;
 
 public class LossyCache<T> implements LongCache<T> {
     protected final long[] keys;
+    protected final int[] seeds;
     protected final T[] values;
     protected final int mask;
     protected final Consumer<T> removalListener;
@@ -44,6 +45,7 @@ public class LossyCache<T> implements LongCache<T> {
         capacity = Mth.smallestEncompassingPowerOfTwo(capacity);
         this.mask = capacity - 1;
         this.keys = new long[capacity];
+        this.seeds = new int[capacity];
         this.values = constructor.apply(capacity);
         this.removalListener = removalListener;
         Arrays.fill(this.keys, Long.MIN_VALUE);
@@ -55,10 +57,11 @@ public class LossyCache<T> implements LongCache<T> {
         int index = hash & mask;
         T value = values[index];
 
-        if (keys[index] == key && value != null) return value;
+        if (keys[index] == key && seeds[index] == seed && value != null) return value;
 
         T newValue = function.apply(seed, key);
         keys[index] = key;
+        seeds[index] = seed;
         values[index] = newValue;
 
         onRemove(value);
@@ -110,16 +113,18 @@ public class LossyCache<T> implements LongCache<T> {
             // Try reading without locking
             long readStamp = lock.tryOptimisticRead();
             long currentKey = keys[index];
+            int currentSeed = seeds[index];
             T currentValue = values[index];
 
             if (!lock.validate(readStamp)) {
                 // Write occurred during the optimistic read so obtain a full read lock
                 readStamp = lock.readLock();
                 currentKey = keys[index];
+                currentSeed = seeds[index];
                 currentValue = values[index];
             }
 
-            if (currentKey == key && currentValue != null) {
+            if (currentKey == key && currentSeed == seed && currentValue != null) {
                 LockUtil.unlockIfRead(lock, readStamp);
                 return currentValue;
             }
@@ -130,13 +135,14 @@ public class LossyCache<T> implements LongCache<T> {
                     writeStamp = LockUtil.convertToWrite(lock, readStamp);
 
                     // Write may have occurred between unlocking read & obtaining write
-                    if (keys[index] == key && values[index] != null) {
+                    if (keys[index] == key && seeds[index] == seed && values[index] != null) {
                         return values[index];
                     }
                 }
 
                 T newValue = function.apply(seed, key);
                 keys[index] = key;
+                seeds[index] = seed;
                 values[index] = newValue;
 
                 return newValue;
@@ -0,0 +1,148 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.terraforged.mod.util.storage;
+
+import com.terraforged.mod.util.MathUtil;
+import net.minecraft.util.Mth;
+
+import java.util.function.IntFunction;
+
+/**
+ * An immutable square of noise cells packed into a single float array, with each cell taking
+ * {@code stride} consecutive values and the cell's x/y position always stored first. Tiles are
+ * fully computed before being published so they can be shared between threads without locking.
+ */
+public abstract class PackedTile {
+    public static final int PX = 0;
+    public static final int PY = 1;
+
+    protected final int seed;
+    protected final int tileX;
+    protected final int tileY;
+    protected final int bits;
+    protected final int mask;
+    protected final int stride;
+    protected final float[] data;
+
+    protected PackedTile(int seed, int tileX, int tileY, int bits, int stride, CellWriter writer) {
+        int size = 1 << bits;
+
+        this.seed = seed;
+        this.tileX = tileX;
+        this.tileY = tileY;
+        this.bits = bits;
+        this.mask = size - 1;
+        this.stride = stride;
+        this.data = new float[size * size * stride];
+
+        int startX = tileX << bits;
+        int startY = tileY << bits;
+
+        for (int dy = 0, i = 0; dy < size; dy++) {
+            for (int dx = 0; dx < size; dx++, i += stride) {
+                writer.write(seed, startX + dx, startY + dy, data, i);
+            }
+        }
+    }
+
+    public boolean matches(int seed, int tileX, int tileY) {
+        return this.seed == seed && this.tileX == tileX && this.tileY == tileY;
+    }
+
+    public int index(int cx, int cy) {
+        return (((cy & mask) << bits) | (cx & mask)) * stride;
+    }
+
+    public float getX(int index) {
+        return data[index + PX];
+    }
+
+    public float getY(int index) {
+        return data[index + PY];
+    }
+
+    public interface CellWriter {
+        /**
+         * Writes the cell's values into the data array starting at the given offset.
+         */
+        void write(int seed, int cx, int cy, float[] data, int offset);
+    }
+
+    public interface Factory<T extends PackedTile> {
+        T create(int seed, int tileX, int tileY);
+    }
+
+    /**
+     * Four-way set-associative cache of tiles, with each set kept in least-recently-used order so
+     * that neighbouring tiles which hash to the same set don't evict each other. A racing thread
+     * may compute the same tile twice, or drop an entry while reordering a set, but since tiles
+     * are immutable any result is valid.
+     */
+    public static class Cache<T extends PackedTile> {
+        private static final int WAYS = 4;
+
+        private final int bits;
+        private final int mask;
+        private final T[] tiles;
+        private final Factory<T> factory;
+
+        public Cache(int capacity, int bits, IntFunction<T[]> constructor, Factory<T> factory) {
+            capacity = Mth.smallestEncompassingPowerOfTwo(Math.max(capacity, WAYS));
+            this.bits = bits;
+            this.mask = capacity / WAYS - 1;
+            this.tiles = constructor.apply(capacity);
+            this.factory = factory;
+        }
+
+        public T get(int seed, int cx, int cy) {
+            int tileX = cx >> bits;
+            int tileY = cy >> bits;
+            int set = (MathUtil.hash(0, tileX, tileY) & mask) * WAYS;
+
+            for (int way = 0; way < WAYS; way++) {
+                var tile = tiles[set + way];
+                if (tile == null) break;
+
+                if (tile.matches(seed, tileX, tileY)) {
+                    promote(set, way, tile);
+                    return tile;
+                }
+            }
+
+            var tile = factory.create(seed, tileX, tileY);
+            promote(set, WAYS - 1, tile);
+            return tile;
+        }
+
+        private void promote(int set, int way, T tile) {
+            // Shift the more recently used entries down one way, dropping the entry at 'way'
+            for (int i = set + way; i > set; i--) {
+                tiles[i] = tiles[i - 1];
+            }
+            tiles[set] = tile;
+        }
+    }
+}
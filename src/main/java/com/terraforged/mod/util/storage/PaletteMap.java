@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.terraforged.mod.util.storage;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * A 16x16 map of objects stored as byte indices into a small per-map palette. Values are
+ * compared by identity. The palette must be cleared before the map is refilled.
+ */
+public class PaletteMap<T> {
+    private static final int MAX_SIZE = 256;
+    private static final int INITIAL_SIZE = 8;
+
+    private final Index index;
+    private final byte[] data;
+    private T[] palette;
+    private int size;
+
+    public PaletteMap(IntFunction<T[]> constructor) {
+        this.index = Index.CHUNK;
+        this.data = new byte[16 * 16];
+        this.palette = constructor.apply(INITIAL_SIZE);
+    }
+
+    public Index getIndex() {
+        return index;
+    }
+
+    public int getPaletteSize() {
+        return size;
+    }
+
+    public T get(int x, int z) {
+        return get(index.of(x, z));
+    }
+
+    public void set(int x, int z, T value) {
+        set(index.of(x, z), value);
+    }
+
+    public T get(int index) {
+        return palette[data[index] & 0xFF];
+    }
+
+    public void set(int index, T value) {
+        data[index] = (byte) getId(value);
+    }
+
+    public void clear() {
+        Arrays.fill(palette, 0, size, null);
+        Arrays.fill(data, (byte) 0);
+        size = 0;
+    }
+
+    protected int getId(T value) {
+        for (int i = 0; i < size; i++) {
+            if (palette[i] == value) return i;
+        }
+
+        if (size == MAX_SIZE) {
+            throw new IllegalStateException("Palette is full");
+        }
+
+        if (size == palette.length) {
+            palette = Arrays.copyOf(palette, Math.min(MAX_SIZE, size << 1));
+        }
+
+        palette[size] = value;
+        return size++;
+    }
+}
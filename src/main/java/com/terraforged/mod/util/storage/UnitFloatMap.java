@@ -0,0 +1,69 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.terraforged.mod.util.storage;
+
+import com.terraforged.noise.util.NoiseUtil;
+
+/**
+ * A 16x16 map of floats in the range 0-1 stored as unsigned bytes. Zero is only produced by
+ * values that were zero (or less) to begin with, so exact-zero checks survive the quantisation.
+ */
+public class UnitFloatMap {
+    private static final int MAX_VALUE = 0xFF;
+    private static final float STEP = 1F / MAX_VALUE;
+
+    private final Index index;
+    private final byte[] data;
+
+    public UnitFloatMap() {
+        this.index = Index.CHUNK;
+        this.data = new byte[16 * 16];
+    }
+
+    public Index index() {
+        return index;
+    }
+
+    public float get(int x, int z) {
+        return get(index.of(x, z));
+    }
+
+    public void set(int x, int z, float value) {
+        set(index.of(x, z), value);
+    }
+
+    public float get(int index) {
+        return (data[index] & MAX_VALUE) * STEP;
+    }
+
+    public void set(int index, float value) {
+        if (value <= 0) {
+            data[index] = 0;
+        } else {
+            data[index] = (byte) Math.max(1, NoiseUtil.round(Math.min(1, value) * MAX_VALUE));
+        }
+    }
+}
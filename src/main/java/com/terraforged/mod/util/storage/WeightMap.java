@@ -30,16 +30,29 @@ import com.terraforged.mod.util.MathUtil;
 import java.util.function.Predicate;
 
 public class WeightMap<T> {
+    protected static final int BUCKETS = Integer.getInteger("terraforged.weight_map.buckets", 1024);
+    // Below this size a linear scan is as quick as the bucket lookup
+    protected static final int MIN_BUCKETED_SIZE = 8;
+
     protected final T[] values;
     protected final float[] weights;
     protected final float sumWeight;
     protected final float zeroWeight;
 
+    // The thresholds getValue compares against, in order, plus for each bucket of the noise
+    // range the span of thresholds that fall in it. Null if the map is scanned linearly.
+    protected final float[] thresholds;
+    protected final int[] buckets;
+    protected final float bucketScale;
+
     public WeightMap(T[] values, float[] weights) {
         this.values = values;
         this.weights = getCumulativeWeights(values.length, weights);
         this.zeroWeight = weights.length > 0 ? weights[0] : 0;
         this.sumWeight = MathUtil.sum(weights) * MathUtil.EPSILON;
+        this.thresholds = getThresholds(this.weights, zeroWeight);
+        this.bucketScale = thresholds == null ? 0 : BUCKETS / thresholds[thresholds.length - 1];
+        this.buckets = thresholds == null ? null : getBuckets(thresholds, bucketScale);
     }
 
     public boolean isEmpty() {
@@ -53,6 +66,8 @@ public class WeightMap<T> {
     public T getValue(float noise) {
         noise *= sumWeight;
 
+        if (buckets != null) return getBucketValue(noise);
+
         if (noise < zeroWeight) return values[0];
 
         for (int i = 1; i < weights.length; i++) {
@@ -64,6 +79,31 @@ public class WeightMap<T> {
         return null;
     }
 
+    /**
+     * Finds the same value as the linear scan in getValue. Every threshold in a lower bucket
+     * than the noise is less than or equal to it and every threshold in a higher bucket is
+     * greater, so only those sharing the noise's bucket need to be searched.
+     */
+    protected T getBucketValue(float noise) {
+        int bucket = getBucket(noise, bucketScale);
+        int lower = buckets[bucket];
+        int upper = buckets[bucket + 1];
+
+        while (lower < upper) {
+            int mid = (lower + upper) >>> 1;
+            if (noise < thresholds[mid]) {
+                upper = mid;
+            } else {
+                lower = mid + 1;
+            }
+        }
+
+        // Also rejects NaN noise, which the linear scan never matches
+        if (lower == thresholds.length || !(noise < thresholds[lower])) return null;
+
+        return values[lower];
+    }
+
     public T find(Predicate<T> predicate) {
         for (var t : values) {
             if (predicate.test(t)) {
@@ -99,6 +139,44 @@ public class WeightMap<T> {
         return new WeightMap<>(values, weights);
     }
 
+    private static float[] getThresholds(float[] weights, float zeroWeight) {
+        if (BUCKETS <= 0 || weights.length < MIN_BUCKETED_SIZE) return null;
+
+        float[] thresholds = weights.clone();
+        thresholds[0] = zeroWeight;
+
+        // Binary search relies on the thresholds being sorted
+        for (int i = 0; i < thresholds.length; i++) {
+            if (Float.isNaN(thresholds[i])) return null;
+            if (i > 0 && thresholds[i] < thresholds[i - 1]) return null;
+        }
+
+        float max = thresholds[thresholds.length - 1];
+        if (!(max > 0) || Float.isInfinite(max)) return null;
+
+        return thresholds;
+    }
+
+    private static int[] getBuckets(float[] thresholds, float scale) {
+        // buckets[b] holds the number of thresholds in buckets below b
+        int[] buckets = new int[BUCKETS + 1];
+        for (float threshold : thresholds) {
+            buckets[getBucket(threshold, scale) + 1]++;
+        }
+
+        for (int i = 1; i < buckets.length; i++) {
+            buckets[i] += buckets[i - 1];
+        }
+
+        return buckets;
+    }
+
+    private static int getBucket(float value, float scale) {
+        // Monotonic in value, which is all the lookup needs to stay exact
+        int bucket = (int) (value * scale);
+        return bucket < 0 ? 0 : Math.min(bucket, BUCKETS - 1);
+    }
+
     private static float[] getCumulativeWeights(int len, float[] weights) {
         float[] cumulativeWeights = new float[len];
 
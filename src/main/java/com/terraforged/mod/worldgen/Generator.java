@@ -30,11 +30,14 @@ import com.terraforged.mod.data.codec.WorldGenCodec;
 import com.terraforged.mod.worldgen.biome.BiomeGenerator;
 import com.terraforged.mod.worldgen.biome.Source;
 import com.terraforged.mod.worldgen.noise.INoiseGenerator;
+import com.terraforged.mod.worldgen.terrain.ColumnCache;
 import com.terraforged.mod.worldgen.terrain.TerrainCache;
 import com.terraforged.mod.worldgen.terrain.TerrainData;
 import com.terraforged.mod.worldgen.terrain.TerrainLevels;
+import com.terraforged.mod.worldgen.terrain.TerrainPrefetcher;
 import com.terraforged.mod.worldgen.util.ChunkUtil;
 import com.terraforged.mod.worldgen.util.ThreadPool;
+import com.terraforged.mod.worldgen.util.WorkerPool;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Registry;
 import net.minecraft.core.RegistryAccess;
@@ -42,8 +45,6 @@ import net.minecraft.server.level.WorldGenRegion;
 import net.minecraft.world.level.*;
 import net.minecraft.world.level.biome.Biome;
 import net.minecraft.world.level.biome.BiomeManager;
-import net.minecraft.world.level.block.Blocks;
-import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.chunk.ChunkAccess;
 import net.minecraft.world.level.chunk.ChunkGenerator;
 import net.minecraft.world.level.levelgen.GenerationStep;
@@ -53,7 +54,6 @@ import net.minecraft.world.level.levelgen.WorldgenRandom;
 import net.minecraft.world.level.levelgen.blending.Blender;
 import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -71,6 +71,8 @@ public class Generator extends ChunkGenerator implements IGenerator {
     protected final BiomeGenerator biomeGenerator;
     protected final INoiseGenerator noiseGenerator;
     protected final TerrainCache terrainCache;
+    protected final ColumnCache columnCache;
+    protected final TerrainPrefetcher prefetcher;
     protected final ThreadLocal<GeneratorResource> localResource = ThreadLocal.withInitial(GeneratorResource::new);
 
     public Generator(TerrainLevels levels,
@@ -85,6 +87,8 @@ public class Generator extends ChunkGenerator implements IGenerator {
         this.biomeGenerator = biomeGenerator;
         this.noiseGenerator = noiseGenerator;
         this.terrainCache = new TerrainCache(levels, noiseGenerator);
+        this.columnCache = new ColumnCache(levels, terrainCache);
+        this.prefetcher = new TerrainPrefetcher(terrainCache);
     }
 
     @Override
@@ -98,6 +102,14 @@ public class Generator extends ChunkGenerator implements IGenerator {
         return biomeSource.getRegistries();
     }
 
+    public void close() {
+        terrainCache.close();
+    }
+
+    public TerrainPrefetcher getPrefetcher() {
+        return prefetcher;
+    }
+
     public VanillaGen getVanillaGen() {
         return vanillaGen;
     }
@@ -153,11 +165,12 @@ public class Generator extends ChunkGenerator implements IGenerator {
 
     @Override
     public CompletableFuture<ChunkAccess> createBiomes(Registry<Biome> registry, Executor executor, RandomState state, Blender blender, StructureManager structures, ChunkAccess chunk) {
-        terrainCache.hint(Seeds.get(state), chunk.getPos());
-        return CompletableFuture.supplyAsync(() -> {
+        var pos = chunk.getPos();
+        terrainCache.hint(Seeds.get(state), pos);
+        return ThreadPool.EXECUTOR.supply(() -> {
             ChunkUtil.fillNoiseBiomes(chunk, biomeSource, localResource.get());
             return chunk;
-        }, ThreadPool.EXECUTOR);
+        }, pos.x, pos.z, WorkerPool.NORMAL);
     }
 
     @Override
@@ -205,38 +218,17 @@ public class Generator extends ChunkGenerator implements IGenerator {
 
     @Override
     public int getBaseHeight(int x, int z, net.minecraft.world.level.levelgen.Heightmap.Types types, LevelHeightAccessor levelHeightAccessor, RandomState state) {
-        var sample = terrainCache.getSample(Seeds.get(state), x, z);
-
-        float scaledBase = levels.getScaledBaseLevel(sample.baseNoise);
-        float scaledHeight = levels.getScaledHeight(sample.heightNoise);
-
-        int base = levels.getHeight(scaledBase);
-        int height = levels.getHeight(scaledHeight);
+        var column = columnCache.getColumn(Seeds.get(state), x, z);
 
         return switch (types) {
-            case WORLD_SURFACE, WORLD_SURFACE_WG, MOTION_BLOCKING, MOTION_BLOCKING_NO_LEAVES -> Math.max(base, height) + 1;
-            case OCEAN_FLOOR, OCEAN_FLOOR_WG -> height + 1;
+            case WORLD_SURFACE, WORLD_SURFACE_WG, MOTION_BLOCKING, MOTION_BLOCKING_NO_LEAVES -> column.surface() + 1;
+            case OCEAN_FLOOR, OCEAN_FLOOR_WG -> column.height() + 1;
         };
     }
 
     @Override
     public NoiseColumn getBaseColumn(int x, int z, LevelHeightAccessor levelHeightAccessor, RandomState state) {
-        var sample = terrainCache.getSample(Seeds.get(state), x, z);
-
-        float scaledBase = levels.getScaledBaseLevel(sample.baseNoise);
-        float scaledHeight = levels.getScaledHeight(sample.heightNoise);
-
-        int base = levels.getHeight(scaledBase);
-        int height = levels.getHeight(scaledHeight);
-        int surface = Math.max(base, height);
-
-        var states = new BlockState[surface];
-        Arrays.fill(states, 0, height, Blocks.STONE.defaultBlockState());
-        if (surface > height) {
-            Arrays.fill(states, height, surface, Blocks.WATER.defaultBlockState());
-        }
-
-        return new NoiseColumn(height, states);
+        return columnCache.getNoiseColumn(Seeds.get(state), x, z);
     }
 
     @Override
@@ -255,6 +247,11 @@ public class Generator extends ChunkGenerator implements IGenerator {
         lines.add("Height Noise: " + sample.heightNoise);
         lines.add("Ocean Proximity: " + (1 - sample.continentNoise));
         lines.add("River Proximity: " + (1 - sample.riverNoise));
+
+        terrainCache.addDebugInfo(lines);
+        noiseGenerator.addDebugInfo(lines);
+        prefetcher.addDebugInfo(lines);
+        ThreadPool.EXECUTOR.addDebugInfo(lines);
     }
 
     public static boolean isTerraForged(ChunkGenerator generator) {
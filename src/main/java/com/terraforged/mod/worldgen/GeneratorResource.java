@@ -26,9 +26,11 @@ package com.terraforged.mod.worldgen;
 
 import com.terraforged.mod.worldgen.util.BiomeBuffer2D;
 import com.terraforged.mod.worldgen.util.ChunkUtil;
+import com.terraforged.mod.worldgen.util.SectionWriter;
 import net.minecraft.network.FriendlyByteBuf;
 
 public class GeneratorResource {
     public final BiomeBuffer2D biomeBuffer2D = new BiomeBuffer2D();
     public final FriendlyByteBuf fullSection = ChunkUtil.getFullSection();
+    public final SectionWriter sectionWriter = new SectionWriter();
 }
@@ -26,6 +26,7 @@ package com.terraforged.mod.worldgen.biome;
 
 import com.terraforged.engine.world.biome.type.BiomeType;
 import com.terraforged.mod.worldgen.biome.util.BiomeMapManager;
+import com.terraforged.mod.worldgen.biome.util.BiomeTile;
 import com.terraforged.mod.worldgen.noise.INoiseGenerator;
 import com.terraforged.mod.worldgen.noise.climate.ClimateSample;
 import com.terraforged.mod.worldgen.noise.continent.ContinentPoints;
@@ -36,6 +37,7 @@ import net.minecraft.world.level.biome.Biomes;
 public class BiomeSampler extends IBiomeSampler.Sampler implements IBiomeSampler {
     protected final BiomeMapManager biomeMapManager;
     protected final float beachSize = 0.005f;
+    protected final ThreadLocal<Batch> localBatch = ThreadLocal.withInitial(Batch::new);
 
     public BiomeSampler(INoiseGenerator noiseGenerator, BiomeMapManager biomeMapManager) {
         super(noiseGenerator);
@@ -48,6 +50,40 @@ public class BiomeSampler extends IBiomeSampler.Sampler implements IBiomeSampler
         return getBiomeOverride(biome, sample);
     }
 
+    /**
+     * Fills every quart of the tile, including its apron, in one pass. Equivalent to calling
+     * {@link #sampleBiome(int, int, int)} for each quart.
+     */
+    public BiomeTile sampleBiomes(int seed, BiomeTile tile) {
+        var batch = localBatch.get();
+
+        for (int dz = 0, i = 0; dz < BiomeTile.LENGTH; dz++) {
+            float pz = ((tile.getMinZ() + dz) << 2) * levels.frequency;
+
+            for (int dx = 0; dx < BiomeTile.LENGTH; dx++, i++) {
+                batch.x[i] = ((tile.getMinX() + dx) << 2) * levels.frequency;
+                batch.z[i] = pz;
+                batch.samples[i].reset();
+            }
+        }
+
+        noiseGenerator.getContinent().sample(seed, batch.x, batch.z, batch.samples, Batch.SIZE);
+
+        for (int dz = 0, i = 0; dz < BiomeTile.LENGTH; dz++) {
+            for (int dx = 0; dx < BiomeTile.LENGTH; dx++, i++) {
+                var sample = batch.samples[i];
+                climateNoise.sample(seed, batch.x[i], batch.z[i], sample);
+
+                var biome = getInitialBiome(sample.biomeNoise, sample.climateType);
+                biome = getBiomeOverride(biome, sample);
+
+                tile.setId(tile.getMinX() + dx, tile.getMinZ() + dz, biomeMapManager.getId(biome));
+            }
+        }
+
+        return tile.setApron(true);
+    }
+
     private Holder<Biome> getInitialBiome(float noise, BiomeType climateType) {
         var map = biomeMapManager.getBiomeMap().get(climateType);
         if (map == null || map.isEmpty()) {
@@ -91,4 +127,18 @@ public class BiomeSampler extends IBiomeSampler.Sampler implements IBiomeSampler
 
         return input;
     }
+
+    protected static class Batch {
+        protected static final int SIZE = BiomeTile.LENGTH * BiomeTile.LENGTH;
+
+        protected final float[] x = new float[SIZE];
+        protected final float[] z = new float[SIZE];
+        protected final ClimateSample[] samples = new ClimateSample[SIZE];
+
+        protected Batch() {
+            for (int i = 0; i < SIZE; i++) {
+                samples[i] = new ClimateSample();
+            }
+        }
+    }
 }
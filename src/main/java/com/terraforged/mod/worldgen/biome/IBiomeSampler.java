@@ -62,8 +62,7 @@ public interface IBiomeSampler {
             float pz = z * levels.frequency;
 
             var sample = localSample.get().reset();
-            noiseGenerator.getContinent().sampleContinent(seed, px, pz, sample);
-            noiseGenerator.getContinent().sampleRiver(seed, px, pz, sample);
+            noiseGenerator.getContinent().sample(seed, px, pz, sample);
             climateNoise.sample(seed, px, pz, sample);
 
             return sample;
@@ -29,6 +29,7 @@ import com.terraforged.engine.util.pos.PosUtil;
 import com.terraforged.mod.util.storage.LongCache;
 import com.terraforged.mod.util.storage.LossyCache;
 import com.terraforged.mod.worldgen.biome.util.BiomeMapManager;
+import com.terraforged.mod.worldgen.biome.util.BiomeTile;
 import com.terraforged.mod.worldgen.cave.CaveType;
 import com.terraforged.mod.worldgen.noise.INoiseGenerator;
 import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
@@ -45,6 +46,7 @@ import java.util.Set;
 public class Source extends BiomeSource {
     public static final Codec<Source> CODEC = new SourceCodec();
     public static final Climate.Sampler NOOP_CLIMATE_SAMPLER = Climate.empty();
+    protected static final int TILE_CACHE_SIZE = 256;
 
     protected int seed;
     protected final RegistryAccess registries;
@@ -52,7 +54,8 @@ public class Source extends BiomeSource {
     protected final BiomeSampler biomeSampler;
     protected final BiomeMapManager biomeMapManager;
     protected final CaveBiomeSampler caveBiomeSampler;
-    protected final LongCache<Holder<Biome>> cache = LossyCache.concurrent(2048, i -> (Holder<Biome>[]) new Holder[i]);
+    protected final LongCache<BiomeTile> tiles = LossyCache.concurrent(TILE_CACHE_SIZE, BiomeTile[]::new);
+    protected final ThreadLocal<BiomeTile[]> localTile = ThreadLocal.withInitial(() -> new BiomeTile[1]);
 
     public Source(INoiseGenerator noise, RegistryAccess access) {
         super(List.of());
@@ -87,7 +90,29 @@ public class Source extends BiomeSource {
 
     @Override
     public Holder<Biome> getNoiseBiome(int x, int y, int z, Climate.Sampler sampler) {
-        return cache.computeIfAbsent(seed, PosUtil.pack(x, z), this::compute);
+        int seed = this.seed;
+
+        // Neighbouring lookups tend to land in the tile (or its apron) used by the last one
+        var local = localTile.get();
+        var tile = local[0];
+        if (tile == null || !tile.contains(seed, x, z)) {
+            tile = getBiomeTile(seed, x >> 2, z >> 2);
+            local[0] = tile;
+        }
+
+        return biomeMapManager.get(tile.getId(x, z));
+    }
+
+    /**
+     * Returns the biome tile of the given chunk, sampling the whole tile in one pass if it is
+     * not already cached.
+     */
+    public BiomeTile getBiomeTile(int chunkX, int chunkZ) {
+        return getBiomeTile(seed, chunkX, chunkZ);
+    }
+
+    public Holder<Biome> getBiome(BiomeTile tile, int x, int z) {
+        return biomeMapManager.get(tile.getId(x, z));
     }
 
     public RegistryAccess getRegistries() {
@@ -110,9 +135,12 @@ public class Source extends BiomeSource {
         return biomeMapManager.getBiomes();
     }
 
-    protected Holder<Biome> compute(int seed, long index) {
-        int x = PosUtil.unpackLeft(index) << 2;
-        int z = PosUtil.unpackRight(index) << 2;
-        return biomeSampler.sampleBiome(seed, x, z);
+    protected BiomeTile getBiomeTile(int seed, int chunkX, int chunkZ) {
+        return tiles.computeIfAbsent(seed, PosUtil.pack(chunkX, chunkZ), this::compute);
+    }
+
+    protected BiomeTile compute(int seed, long index) {
+        var tile = new BiomeTile(seed, PosUtil.unpackLeft(index), PosUtil.unpackRight(index));
+        return biomeSampler.sampleBiomes(seed, tile);
     }
 }
@@ -27,6 +27,8 @@ package com.terraforged.mod.worldgen.biome.decorator;
 import com.terraforged.mod.util.MathUtil;
 import com.terraforged.mod.worldgen.Generator;
 import com.terraforged.mod.worldgen.asset.VegetationConfig;
+import com.terraforged.mod.worldgen.biome.vegetation.BiomeVegetation;
+import com.terraforged.mod.worldgen.biome.vegetation.BiomeVegetationManager;
 import com.terraforged.mod.worldgen.biome.vegetation.VegetationFeatures;
 import com.terraforged.mod.worldgen.terrain.TerrainData;
 import com.terraforged.noise.util.NoiseUtil;
@@ -55,12 +57,15 @@ public class PositionSampler {
                                        CompletableFuture<TerrainData> terrain,
                                        FeatureDecorator decorator) {
 
-        int offset = placeTreesAndGrass(seed, chunk, level, terrain, generator, random, decorator);
+        var context = SamplerContext.get();
+
+        int offset = placeTreesAndGrass(seed, context, chunk, level, terrain, generator, random, decorator);
 
-        placeOther(seed, offset, origin, biome, level, generator, random, decorator);
+        placeOther(seed, offset, origin, biome, context, level, generator, random, decorator);
     }
 
     public static int placeTreesAndGrass(long seed,
+                                         SamplerContext context,
                                          ChunkAccess chunk,
                                          WorldGenLevel level,
                                          CompletableFuture<TerrainData> terrain,
@@ -68,7 +73,6 @@ public class PositionSampler {
                                          WorldgenRandom random,
                                          FeatureDecorator decorator) {
 
-        var context = SamplerContext.get();
         context.chunk = chunk;
         context.region = level;
         context.random = random;
@@ -87,7 +91,7 @@ public class PositionSampler {
             // Remove annoying river trees!
             if (biome.is(BiomeTags.IS_RIVER)) continue;
 
-            var vegetation = decorator.getVegetationManager().getVegetation(biome);
+            var vegetation = decorator.getVegetationManager().getVegetation(context.biomeList.getId(i), biome);
             var config = vegetation.config;
             context.push(biome.value(), vegetation);
 
@@ -106,12 +110,13 @@ public class PositionSampler {
                                   int offset,
                                   BlockPos origin,
                                   Holder<Biome> biome,
+                                  SamplerContext context,
                                   WorldGenLevel level,
                                   Generator generator,
                                   WorldgenRandom random,
                                   FeatureDecorator decorator) {
 
-        var vegetation = decorator.getVegetationManager().getVegetation(biome);
+        var vegetation = getVegetation(biome, context, decorator.getVegetationManager());
         if (vegetation.features == VegetationFeatures.NONE) return;
 
         for (var other : vegetation.features.other()) {
@@ -124,27 +129,44 @@ public class PositionSampler {
 
     public static void populate(SamplerContext context, FeatureDecorator decorator) {
         var chunk = context.chunk;
+        var vegetationManager = decorator.getVegetationManager();
         int startX = chunk.getPos().getMinBlockX();
         int startZ = chunk.getPos().getMinBlockZ();
 
+        Holder<Biome> lastBiome = null;
+        BiomeVegetation lastVegetation = null;
+
         for (int dz = 0; dz < 16; dz++) {
             for (int dx = 0; dx < 16; dx++) {
                 int x = startX + dx;
                 int z = startZ + dz;
                 int y = context.getHeight(dx, dz);
 
+                // Neighbouring columns mostly share a biome so only resolve its id when it changes
                 var biome = context.getBiome(x, y, z);
+                if (biome != lastBiome) {
+                    lastBiome = biome;
+                    lastVegetation = getVegetation(biome, context, vegetationManager);
+                }
 
-                var vegetation = decorator.getVegetationManager().getVegetation(biome);
-                var viability = vegetation.config.viability();
+                var viability = lastVegetation.config.viability();
                 float value = viability.getFitness(x, z, context.viabilityContext);
 
                 context.viability.set(dx, dz, value);
-                context.biomeList.add(biome);
             }
         }
     }
 
+    private static BiomeVegetation getVegetation(Holder<Biome> biome, SamplerContext context, BiomeVegetationManager vegetationManager) {
+        // Biomes already seen in this chunk carry their registry id so only new ones hit the registry
+        int index = context.biomeList.indexOf(biome);
+        int id = index != -1 ? context.biomeList.getId(index) : vegetationManager.getId(biome);
+
+        context.biomeList.add(biome, id);
+
+        return vegetationManager.getVegetation(id, biome);
+    }
+
     public static <T> int sample(long seed, int offset, int x, int z, float freq, float jitter, T context, Sampler<T> sampler) {
         float freqX = freq;
         float freqZ = freq * SQUASH_FACTOR;
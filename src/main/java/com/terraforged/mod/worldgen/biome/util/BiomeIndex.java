@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.terraforged.mod.worldgen.biome.util;
+
+import net.minecraft.core.Holder;
+import net.minecraft.core.Registry;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.world.level.biome.Biome;
+
+/**
+ * Maps biomes to the dense ids of the biome registry and back so that per-biome data can be
+ * held in flat arrays rather than hash maps keyed on the biome holder.
+ */
+public class BiomeIndex {
+    private final Registry<Biome> biomes;
+    private final Holder<Biome>[] holders;
+
+    public BiomeIndex(Registry<Biome> biomes) {
+        this.biomes = biomes;
+        this.holders = getHolders(biomes);
+    }
+
+    public int size() {
+        return holders.length;
+    }
+
+    public int getId(Holder<Biome> biome) {
+        return biomes.getId(biome.value());
+    }
+
+    public Holder<Biome> get(int id) {
+        return holders[id];
+    }
+
+    public static BiomeIndex of(RegistryAccess access) {
+        return new BiomeIndex(access.registryOrThrow(Registry.BIOME_REGISTRY));
+    }
+
+    private static Holder<Biome>[] getHolders(Registry<Biome> biomes) {
+        var holders = (Holder<Biome>[]) new Holder[biomes.size()];
+        biomes.holders().forEach(holder -> holders[biomes.getId(holder.value())] = holder);
+        return holders;
+    }
+}
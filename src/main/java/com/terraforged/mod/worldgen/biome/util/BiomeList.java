@@ -32,6 +32,7 @@ import java.util.Arrays;
 public class BiomeList {
     private int size = 0;
     private Holder<Biome>[] biomes;
+    private int[] ids;
 
     public BiomeList reset() {
         size = 0;
@@ -46,31 +47,49 @@ public class BiomeList {
         return biomes[i];
     }
 
-    public boolean contains(Holder<Biome> biome) {
-        if (biomes == null) return false;
+    /**
+     * Returns the registry id the biome was added with, or -1 if it was not known.
+     */
+    public int getId(int i) {
+        return ids[i];
+    }
+
+    public int indexOf(Holder<Biome> biome) {
+        if (biomes == null) return -1;
 
         for (int i = 0; i < size; i++) {
             if (biomes[i] == biome) {
-                return true;
+                return i;
             }
         }
 
-        return false;
+        return -1;
+    }
+
+    public boolean contains(Holder<Biome> biome) {
+        return indexOf(biome) != -1;
     }
 
     public void add(Holder<Biome> biome) {
+        add(biome, -1);
+    }
+
+    public void add(Holder<Biome> biome, int id) {
         if (contains(biome)) return;
 
         grow(size + 1);
         biomes[size] = biome;
+        ids[size] = id;
         size++;
     }
 
     private void grow(int size) {
         if (biomes == null) {
             biomes = new Holder[size];
+            ids = new int[size];
         } else if (biomes.length <= size) {
             biomes = Arrays.copyOf(biomes, size);
+            ids = Arrays.copyOf(ids, size);
         }
     }
 }
@@ -48,6 +48,7 @@ public class BiomeMapManager {
 
     private final Registry<Biome> biomes;
     private final Registry<ClimateType> climateTypes;
+    private final BiomeIndex index;
     private final List<Holder<Biome>> overworldBiomes;
     private final Map<BiomeType, WeightMap<Holder<Biome>>> biomeMap;
 
@@ -55,6 +56,7 @@ public class BiomeMapManager {
         biomes = access.ownedRegistryOrThrow(Registry.BIOME_REGISTRY);
         climateTypes = access.ownedRegistryOrThrow(TerraForged.CLIMATES.get());
         overworldBiomes = getOverworldBiomes(biomes, climateTypes);
+        index = new BiomeIndex(biomes);
         biomeMap = buildBiomeMap();
     }
 
@@ -66,6 +68,18 @@ public class BiomeMapManager {
         return biomes;
     }
 
+    public BiomeIndex getIndex() {
+        return index;
+    }
+
+    public int getId(Holder<Biome> biome) {
+        return index.getId(biome);
+    }
+
+    public Holder<Biome> get(int id) {
+        return index.get(id);
+    }
+
     public List<Holder<Biome>> getOverworldBiomes() {
         return overworldBiomes;
     }
@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.terraforged.mod.worldgen.biome.util;
+
+/**
+ * The biome ids of a chunk's 4x4 quarts plus a one quart apron around them. The apron lets
+ * lookups that straddle the chunk's edges, such as vanilla's biome zoom, resolve from the
+ * same tile. Tiles primed from a chunk's terrain data only fill the inner quarts.
+ */
+public class BiomeTile {
+    public static final int SIZE = 4;
+    public static final int APRON = 1;
+    public static final int LENGTH = SIZE + APRON * 2;
+
+    protected final int seed;
+    protected final int minX;
+    protected final int minZ;
+    protected final short[] ids = new short[LENGTH * LENGTH];
+    protected boolean apron;
+
+    public BiomeTile(int seed, int chunkX, int chunkZ) {
+        this.seed = seed;
+        this.minX = (chunkX << 2) - APRON;
+        this.minZ = (chunkZ << 2) - APRON;
+    }
+
+    public int getSeed() {
+        return seed;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinZ() {
+        return minZ;
+    }
+
+    public boolean hasApron() {
+        return apron;
+    }
+
+    public boolean contains(int seed, int quartX, int quartZ) {
+        if (seed != this.seed) return false;
+
+        int min = apron ? 0 : APRON;
+        int max = apron ? LENGTH : LENGTH - APRON;
+        int dx = quartX - minX;
+        int dz = quartZ - minZ;
+        return dx >= min && dx < max && dz >= min && dz < max;
+    }
+
+    public int getId(int quartX, int quartZ) {
+        return ids[(quartZ - minZ) * LENGTH + (quartX - minX)];
+    }
+
+    public void setId(int quartX, int quartZ, int id) {
+        ids[(quartZ - minZ) * LENGTH + (quartX - minX)] = (short) id;
+    }
+
+    public BiomeTile setApron(boolean apron) {
+        this.apron = apron;
+        return this;
+    }
+}
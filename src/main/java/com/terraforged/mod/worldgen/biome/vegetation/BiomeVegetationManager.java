@@ -26,25 +26,50 @@ package com.terraforged.mod.worldgen.biome.vegetation;
 
 import com.terraforged.mod.TerraForged;
 import com.terraforged.mod.worldgen.asset.VegetationConfig;
+import com.terraforged.mod.worldgen.biome.util.BiomeIndex;
 import net.minecraft.core.Holder;
 import net.minecraft.core.RegistryAccess;
 import net.minecraft.world.level.biome.Biome;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public class BiomeVegetationManager {
     private final RegistryAccess access;
     private final VegetationConfig[] configs;
-    private final Map<Holder<Biome>, BiomeVegetation> vegetation = new ConcurrentHashMap<>();
+    private final BiomeIndex index;
+    private final AtomicReferenceArray<BiomeVegetation> vegetation;
 
     public BiomeVegetationManager(RegistryAccess access) {
         this.access = access;
         this.configs = TerraForged.VEGETATIONS.entries(access, VegetationConfig[]::new);
+        this.index = BiomeIndex.of(access);
+        this.vegetation = new AtomicReferenceArray<>(index.size());
+    }
+
+    public int getId(Holder<Biome> biome) {
+        return index.getId(biome);
     }
 
     public BiomeVegetation getVegetation(Holder<Biome> biome) {
-        return vegetation.computeIfAbsent(biome, this::compute);
+        return getVegetation(index.getId(biome), biome);
+    }
+
+    /**
+     * Returns the vegetation of the biome with the given registry id. Biomes that are not in the
+     * registry (id -1) are computed directly from the holder and not cached.
+     */
+    public BiomeVegetation getVegetation(int id, Holder<Biome> biome) {
+        if (id < 0 || id >= vegetation.length()) return compute(biome);
+
+        var value = vegetation.get(id);
+        if (value == null) {
+            // A racing thread may compute the same entry but only the first is kept
+            value = compute(index.get(id));
+            if (!vegetation.compareAndSet(id, null, value)) {
+                value = vegetation.get(id);
+            }
+        }
+        return value;
     }
 
     /**
@@ -32,16 +32,16 @@ import com.terraforged.noise.Module;
 import net.minecraft.core.Holder;
 import net.minecraft.world.level.biome.Biome;
 
-import java.util.IdentityHashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 public class CarverChunk {
     private Holder<Biome> cached;
     private int cachedX, cachedZ;
 
-    private int biomeListIndex = -1;
-    private final BiomeList[] biomeLists;
-    private final Map<NoiseCave, BiomeList> biomes = new IdentityHashMap<>();
+    // The biome lists in use, paired by index with the cave config they were collected for
+    private int biomeListCount = 0;
+    private BiomeList[] biomeLists;
+    private NoiseCave[] biomeListConfigs;
 
     public Module mask;
     public Module modifier;
@@ -49,6 +49,7 @@ public class CarverChunk {
 
     public CarverChunk(int size) {
         biomeLists = new BiomeList[size];
+        biomeListConfigs = new NoiseCave[size];
         for (int i = 0; i < biomeLists.length; i++) {
             biomeLists[i] = new BiomeList();
         }
@@ -56,13 +57,18 @@ public class CarverChunk {
 
     public CarverChunk reset() {
         cached = null;
-        biomes.clear();
-        biomeListIndex = -1;
+        Arrays.fill(biomeListConfigs, 0, biomeListCount, null);
+        biomeListCount = 0;
         return this;
     }
 
     public BiomeList getBiomes(NoiseCave config) {
-        return biomes.get(config);
+        for (int i = 0; i < biomeListCount; i++) {
+            if (biomeListConfigs[i] == config) {
+                return biomeLists[i];
+            }
+        }
+        return null;
     }
 
     public Holder<Biome> getBiome(int x, int z, NoiseCave config, Generator generator) {
@@ -72,7 +78,7 @@ public class CarverChunk {
             cached = generator.getBiomeSource().getUnderGroundBiome(config.getSeed(), x, z, config.getType());
             cachedX = biomeX;
             cachedZ = biomeZ;
-            biomes.computeIfAbsent(config, c -> nextList()).add(cached);
+            getOrCreateBiomes(config).add(cached);
         }
         return cached;
     }
@@ -83,12 +89,18 @@ public class CarverChunk {
         return 1f - noise * river;
     }
 
-    private BiomeList nextList() {
-        int i = biomeListIndex + 1;
-        if (i < biomeLists.length) {
-            biomeListIndex = i;
-            return biomeLists[i].reset();
+    private BiomeList getOrCreateBiomes(NoiseCave config) {
+        var biomes = getBiomes(config);
+        if (biomes != null) return biomes;
+
+        int i = biomeListCount++;
+        if (i == biomeLists.length) {
+            biomeLists = Arrays.copyOf(biomeLists, i + 1);
+            biomeListConfigs = Arrays.copyOf(biomeListConfigs, i + 1);
+            biomeLists[i] = new BiomeList();
         }
-        return new BiomeList();
+
+        biomeListConfigs[i] = config;
+        return biomeLists[i].reset();
     }
 }
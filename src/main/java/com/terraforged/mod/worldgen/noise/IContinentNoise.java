@@ -26,6 +26,10 @@ package com.terraforged.mod.worldgen.noise;
 
 import com.terraforged.engine.world.GeneratorContext;
 import com.terraforged.engine.world.heightmap.ControlPoints;
+import com.terraforged.noise.util.Vec2f;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface IContinentNoise {
     GeneratorContext getContext();
@@ -34,4 +38,29 @@ public interface IContinentNoise {
     void sampleContinent(int seed, float x, float y, NoiseSample sample);
 
     void sampleRiver(int seed, float x, float z, NoiseSample sample);
+
+    /**
+     * Samples the continent shape and rivers at the same point. Implementations can share
+     * the work common to both, such as the domain warp.
+     */
+    default void sample(int seed, float x, float z, NoiseSample sample) {
+        sampleContinent(seed, x, z, sample);
+        sampleRiver(seed, x, z, sample);
+    }
+
+    default void sample(int seed, float[] x, float[] z, NoiseSample[] samples, int count) {
+        for (int i = 0; i < count; i++) {
+            sample(seed, x[i], z[i], samples[i]);
+        }
+    }
+
+    default CompletableFuture<Vec2f> prepareWorldOffset(int seed) {
+        return CompletableFuture.completedFuture(Vec2f.ZERO);
+    }
+
+    default void setWorldOffset(int seed, Vec2f offset) {
+    }
+
+    default void addDebugInfo(List<String> lines) {
+    }
 }
@@ -27,6 +27,7 @@ package com.terraforged.mod.worldgen.noise;
 import com.terraforged.engine.world.terrain.Terrain;
 import com.terraforged.mod.worldgen.terrain.TerrainLevels;
 
+import java.util.List;
 import java.util.function.Consumer;
 
 public interface INoiseGenerator {
@@ -44,8 +45,16 @@ public interface INoiseGenerator {
 
     long find(int seed, int x, int z, int minRadius, int maxRadius, Terrain terrain);
 
+    long getConfigHash();
+
     void generate(int seed, int chunkX, int chunkZ, Consumer<NoiseData> consumer);
 
+    default void addDebugInfo(List<String> lines) {
+    }
+
+    default void close() {
+    }
+
     default float getNoiseCoord(int coord) {
         return coord * getLevels().frequency;
     }
@@ -84,6 +84,14 @@ public class NoiseData {
         river.set(index, sample.riverNoise);
     }
 
+    public void setNoise(int x, int z, float heightNoise, float baseNoise, float riverNoise, Terrain terrainType) {
+        int index = index().of(x, z);
+        terrain.set(index, terrainType);
+        height.set(index, heightNoise);
+        base.set(index, baseNoise);
+        river.set(index, riverNoise);
+    }
+
     public static boolean isInsideChunk(int x, int z) {
         return x >= -1 && x <= 16 && z >= -1 && z <= 16;
     }
@@ -24,6 +24,8 @@
 
 package com.terraforged.mod.worldgen.noise;
 
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.JsonOps;
 import com.terraforged.engine.settings.Settings;
 import com.terraforged.engine.util.pos.PosUtil;
 import com.terraforged.engine.world.GeneratorContext;
@@ -40,14 +42,21 @@ import com.terraforged.mod.worldgen.terrain.TerrainBlender;
 import com.terraforged.mod.worldgen.terrain.TerrainLevels;
 import com.terraforged.noise.Module;
 import com.terraforged.noise.Source;
+import com.terraforged.mod.util.storage.LongCache;
+import com.terraforged.mod.util.storage.LossyCache;
 import com.terraforged.noise.util.NoiseUtil;
 
+import java.util.List;
 import java.util.function.Consumer;
 
 public class NoiseGenerator implements INoiseGenerator {
     protected static final int OCEAN_OFFSET = 8763214;
     protected static final int TERRAIN_OFFSET = 45763218;
     protected static final int CONTINENT_OFFSET = 18749560;
+    // Opt-in: tiles sample every column from a reset NoiseSample whereas the per-chunk path carries
+    // the sample (notably its river noise) over between columns, so the two produce different terrain
+    protected static final int TILE_SIZE = Integer.getInteger("terraforged.noise_tile_size", 1);
+    protected static final int TILE_CACHE_SIZE = Integer.getInteger("terraforged.noise_tile_cache", 64);
     protected final float heightMultiplier = 1.2F;
 
     protected final TerrainLevels levels;
@@ -55,6 +64,8 @@ public class NoiseGenerator implements INoiseGenerator {
     protected final TerrainBlender land;
     protected final IContinentNoise continent;
     protected final ControlPoints controlPoints;
+    protected final long terrainHash;
+    protected final LongCache<NoiseTile> tiles = createTileCache();
     protected final ThreadLocal<NoiseData> localChunk = ThreadLocal.withInitial(NoiseData::new);
     protected final ThreadLocal<NoiseSample> localSample = ThreadLocal.withInitial(NoiseSample::new);
 
@@ -64,6 +75,7 @@ public class NoiseGenerator implements INoiseGenerator {
         this.land = createLandTerrain(terrainNoises);
         this.continent = createContinentNoise(levels);
         this.controlPoints = continent.getControlPoints();
+        this.terrainHash = getTerrainHash(terrainNoises);
     }
 
     public NoiseGenerator(TerrainLevels levels, NoiseGenerator other) {
@@ -72,6 +84,7 @@ public class NoiseGenerator implements INoiseGenerator {
         this.ocean = other.ocean;
         this.continent = other.continent;
         this.controlPoints = continent.getControlPoints();
+        this.terrainHash = other.terrainHash;
     }
 
     @Override
@@ -126,9 +139,31 @@ public class NoiseGenerator implements INoiseGenerator {
         return 0;
     }
 
+    @Override
+    public long getConfigHash() {
+        long hash = terrainHash;
+        // Continent, river and climate settings are derived from the levels so this covers them too
+        hash = 31 * hash + getEncodedHash(TerrainLevels.CODEC, levels);
+        hash = 31 * hash + Float.floatToIntBits(levels.noiseLevels.frequency);
+        hash = 31 * hash + (isTiled() ? 1 : 0);
+        return hash;
+    }
+
+    @Override
+    public void addDebugInfo(List<String> lines) {
+        continent.addDebugInfo(lines);
+    }
+
     @Override
     public void generate(int seed, int chunkX, int chunkZ, Consumer<NoiseData> consumer) {
         var noiseData = localChunk.get();
+
+        if (isTiled()) {
+            getTile(seed, chunkX, chunkZ).generateRivers(this).copyTo(chunkX, chunkZ, noiseData);
+            consumer.accept(noiseData);
+            return;
+        }
+
         var blender = land.getBlenderResource();
         var sample = noiseData.sample;
 
@@ -148,6 +183,24 @@ public class NoiseGenerator implements INoiseGenerator {
         consumer.accept(noiseData);
     }
 
+    public boolean isTiled() {
+        return tiles != null;
+    }
+
+    /**
+     * Returns the tile containing the given chunk with its terrain stage generated.
+     * Only valid when {@link #isTiled()} is true.
+     */
+    public NoiseTile getTile(int seed, int chunkX, int chunkZ) {
+        int tileX = Math.floorDiv(chunkX, TILE_SIZE);
+        int tileZ = Math.floorDiv(chunkZ, TILE_SIZE);
+        long key = PosUtil.pack(tileX, tileZ);
+
+        var tile = tiles.computeIfAbsent(seed, key, NoiseGenerator::createTile);
+
+        return tile.generateTerrain(this);
+    }
+
     public INoiseGenerator withErosion() {
         return new ErodedNoiseGenerator(getNoiseTileSize(), this);
     }
@@ -257,6 +310,48 @@ public class NoiseGenerator implements INoiseGenerator {
         return new NoiseTileSize(2);
     }
 
+    protected static NoiseTile createTile(int seed, long key) {
+        int chunkX = PosUtil.unpackLeft(key) * TILE_SIZE;
+        int chunkZ = PosUtil.unpackRight(key) * TILE_SIZE;
+        return new NoiseTile(seed, chunkX, chunkZ, TILE_SIZE);
+    }
+
+    protected static LongCache<NoiseTile> createTileCache() {
+        if (TILE_SIZE < 2) return null;
+
+        return LossyCache.concurrent(TILE_CACHE_SIZE, NoiseTile[]::new);
+    }
+
+    protected static long getTerrainHash(TerrainNoise[] terrainNoises) {
+        long hash = terrainNoises.length;
+        hash = 31 * hash + OCEAN_OFFSET;
+        hash = 31 * hash + TERRAIN_OFFSET;
+        hash = 31 * hash + CONTINENT_OFFSET;
+        for (var terrain : terrainNoises) {
+            // The encoded form covers the full noise module tree rather than just its value range
+            long encoded = getEncodedHash(TerrainNoise.CODEC, terrain);
+            if (encoded == 0L) {
+                encoded = 31L * terrain.terrain().getName().hashCode() + Float.floatToIntBits(terrain.weight());
+                encoded = 31 * encoded + Float.floatToIntBits(terrain.noise().minValue());
+                encoded = 31 * encoded + Float.floatToIntBits(terrain.noise().maxValue());
+            }
+            hash = 31 * hash + encoded;
+        }
+        return hash;
+    }
+
+    protected static <V> long getEncodedHash(Codec<V> codec, V value) {
+        var result = codec.encodeStart(JsonOps.INSTANCE, value).result();
+        if (result.isEmpty()) return 0L;
+
+        var json = result.get().toString();
+        long hash = 1125899906842597L;
+        for (int i = 0; i < json.length(); i++) {
+            hash = 31 * hash + json.charAt(i);
+        }
+        return hash;
+    }
+
     protected static Module createOceanTerrain() {
         return Source.simplex(OCEAN_OFFSET, 64, 3).scale(0.4);
     }
@@ -0,0 +1,193 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.terraforged.mod.worldgen.noise;
+
+import com.terraforged.engine.world.terrain.Terrain;
+
+/**
+ * A block of chunks sampled over a single shared grid so that columns along
+ * shared chunk borders are only sampled once. Terrain (continent + land/ocean)
+ * and river stages are computed lazily and independently since the eroded
+ * generator only consumes the terrain stage.
+ * <p>
+ * Every column starts from a reset sample, so unlike the per-chunk path no
+ * values (eg river noise) carry over from the previously sampled column.
+ */
+public class NoiseTile {
+    public static final int BORDER = 1;
+
+    protected final int seed;
+    protected final int chunkX;
+    protected final int chunkZ;
+    protected final int chunkSize;
+    protected final int startX;
+    protected final int startZ;
+    protected final int length;
+
+    protected final float[] continent;
+    protected final float[] base;
+    protected final float[] height;
+    protected final Terrain[] terrain;
+
+    protected float[] riverBase;
+    protected float[] riverHeight;
+    protected float[] river;
+    protected Terrain[] riverTerrain;
+
+    protected volatile boolean terrainDone;
+    protected volatile boolean riversDone;
+
+    public NoiseTile(int seed, int chunkX, int chunkZ, int chunkSize) {
+        this.seed = seed;
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.chunkSize = chunkSize;
+        this.startX = (chunkX << 4) - BORDER;
+        this.startZ = (chunkZ << 4) - BORDER;
+        this.length = (chunkSize << 4) + BORDER * 2;
+
+        int size = length * length;
+        this.continent = new float[size];
+        this.base = new float[size];
+        this.height = new float[size];
+        this.terrain = new Terrain[size];
+    }
+
+    public int getSeed() {
+        return seed;
+    }
+
+    public boolean contains(int chunkX, int chunkZ) {
+        return chunkX >= this.chunkX && chunkX < this.chunkX + chunkSize
+                && chunkZ >= this.chunkZ && chunkZ < this.chunkZ + chunkSize;
+    }
+
+    public int index(int x, int z) {
+        return (z - startZ) * length + (x - startX);
+    }
+
+    public NoiseTile generateTerrain(NoiseGenerator generator) {
+        if (terrainDone) return this;
+
+        synchronized (this) {
+            if (terrainDone) return this;
+
+            var sample = new NoiseSample();
+            var blender = generator.getBlenderResource();
+
+            for (int dz = 0, i = 0; dz < length; dz++) {
+                float nz = generator.getNoiseCoord(startZ + dz);
+
+                for (int dx = 0; dx < length; dx++, i++) {
+                    float nx = generator.getNoiseCoord(startX + dx);
+
+                    generator.sampleTerrain(seed, nx, nz, sample.reset(), blender);
+
+                    continent[i] = sample.continentNoise;
+                    base[i] = sample.baseNoise;
+                    height[i] = sample.heightNoise;
+                    terrain[i] = sample.terrainType;
+                }
+            }
+
+            terrainDone = true;
+        }
+
+        return this;
+    }
+
+    public NoiseTile generateRivers(NoiseGenerator generator) {
+        if (riversDone) return this;
+
+        generateTerrain(generator);
+
+        synchronized (this) {
+            if (riversDone) return this;
+
+            int size = length * length;
+            var riverBase = new float[size];
+            var riverHeight = new float[size];
+            var river = new float[size];
+            var riverTerrain = new Terrain[size];
+            var sample = new NoiseSample();
+
+            for (int dz = 0, i = 0; dz < length; dz++) {
+                float nz = generator.getNoiseCoord(startZ + dz);
+
+                for (int dx = 0; dx < length; dx++, i++) {
+                    float nx = generator.getNoiseCoord(startX + dx);
+
+                    getTerrainSample(i, sample);
+                    generator.sampleRiver(seed, nx, nz, sample);
+
+                    riverBase[i] = sample.baseNoise;
+                    riverHeight[i] = sample.heightNoise;
+                    river[i] = sample.riverNoise;
+                    riverTerrain[i] = sample.terrainType;
+                }
+            }
+
+            this.riverBase = riverBase;
+            this.riverHeight = riverHeight;
+            this.river = river;
+            this.riverTerrain = riverTerrain;
+            this.riversDone = true;
+        }
+
+        return this;
+    }
+
+    public float getTerrainHeight(int x, int z) {
+        return height[index(x, z)];
+    }
+
+    public NoiseSample getTerrainSample(int x, int z, NoiseSample sample) {
+        return getTerrainSample(index(x, z), sample);
+    }
+
+    protected NoiseSample getTerrainSample(int index, NoiseSample sample) {
+        sample.reset();
+        sample.continentNoise = continent[index];
+        sample.baseNoise = base[index];
+        sample.heightNoise = height[index];
+        sample.terrainType = terrain[index];
+        return sample;
+    }
+
+    public void copyTo(int chunkX, int chunkZ, NoiseData noiseData) {
+        int startX = chunkX << 4;
+        int startZ = chunkZ << 4;
+        int min = noiseData.min();
+        int max = noiseData.max();
+
+        for (int dz = min; dz < max; dz++) {
+            for (int dx = min; dx < max; dx++) {
+                int i = index(startX + dx, startZ + dz);
+                noiseData.setNoise(dx, dz, riverHeight[i], riverBase[i], river[i], riverTerrain[i]);
+            }
+        }
+    }
+}
@@ -31,6 +31,7 @@ import com.terraforged.engine.world.biome.type.BiomeType;
 import com.terraforged.engine.world.climate.Moisture;
 import com.terraforged.engine.world.climate.Temperature;
 import com.terraforged.mod.util.MathUtil;
+import com.terraforged.mod.util.storage.PackedTile;
 import com.terraforged.mod.worldgen.noise.continent.cell.CellShape;
 import com.terraforged.noise.Module;
 import com.terraforged.noise.Source;
@@ -39,6 +40,7 @@ import com.terraforged.noise.util.NoiseUtil;
 
 public class ClimateNoise {
     private static final float MOISTURE_SIZE = 2.5F;
+    private static final int TILE_CACHE_SIZE = 64;
 
     private final int seed;
     private final float jitter = 0.8f;
@@ -51,6 +53,8 @@ public class ClimateNoise {
 
     private final ThreadLocal<ClimateSample> localSample = ThreadLocal.withInitial(ClimateSample::new);
 
+    private final PackedTile.Cache<ClimateTile> tiles = new PackedTile.Cache<>(TILE_CACHE_SIZE, ClimateTile.BITS, ClimateTile[]::new, this::createTile);
+
     public ClimateNoise(GeneratorContext context) {
         this(context.seed, context.settings);
     }
@@ -122,34 +126,51 @@ public class ClimateNoise {
         int maxX = NoiseUtil.floor(x) + 2;
         int maxY = NoiseUtil.floor(y) + 2;
 
-        float nearestX = x;
-        float nearestY = y;
-        int nearestHash = 0;
+        ClimateTile nearestTile = null;
+        int nearestIndex = 0;
         float distance = Float.MAX_VALUE;
         float distance2 = Float.MAX_VALUE;
 
         for (int cy = minY; cy <= maxY; cy++) {
             for (int cx = minX; cx <= maxX; cx++) {
-                int hash = MathUtil.hash(seed, cx, cy);
-                float px = cellShape.getCellX(hash, cx, cy, jitter);
-                float py = cellShape.getCellY(hash, cx, cy, jitter);
-                float d2 = NoiseUtil.dist2(x, y, px, py);
+                var tile = getTile(seed, cx, cy);
+                int index = tile.index(cx, cy);
+                float d2 = NoiseUtil.dist2(x, y, tile.getX(index), tile.getY(index));
 
                 if (d2 < distance) {
                     distance2 = distance;
                     distance = d2;
-                    nearestX = px;
-                    nearestY = py;
-                    nearestHash = hash;
+                    nearestTile = tile;
+                    nearestIndex = index;
                 } else if (d2 < distance2) {
                     distance2 = d2;
                 }
             }
         }
 
-        sample.biomeNoise = MathUtil.rand(nearestHash, 1236785);
+        sample.biomeNoise = nearestTile.getBiome(nearestIndex);
         sample.biomeEdgeNoise = 1f - NoiseUtil.sqrt(distance / distance2);
-        sample.moisture = this.moisture.getValue(seed, nearestX, nearestY);
-        sample.temperature = this.temperature.getValue(seed, nearestX, nearestY);
+        sample.moisture = nearestTile.getMoisture(nearestIndex);
+        sample.temperature = nearestTile.getTemperature(nearestIndex);
+    }
+
+    private ClimateTile getTile(int seed, int cx, int cy) {
+        return tiles.get(seed, cx, cy);
+    }
+
+    private ClimateTile createTile(int seed, int tileX, int tileY) {
+        return new ClimateTile(seed, tileX, tileY, this::computeCell);
+    }
+
+    private void computeCell(int seed, int cx, int cy, float[] data, int offset) {
+        int hash = MathUtil.hash(seed, cx, cy);
+        float px = cellShape.getCellX(hash, cx, cy, jitter);
+        float py = cellShape.getCellY(hash, cx, cy, jitter);
+
+        data[offset + ClimateTile.PX] = px;
+        data[offset + ClimateTile.PY] = py;
+        data[offset + ClimateTile.BIOME] = MathUtil.rand(hash, 1236785);
+        data[offset + ClimateTile.MOISTURE] = moisture.getValue(seed, px, py);
+        data[offset + ClimateTile.TEMPERATURE] = temperature.getValue(seed, px, py);
     }
 }
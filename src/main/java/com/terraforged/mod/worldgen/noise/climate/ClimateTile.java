@@ -0,0 +1,56 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.worldgen.noise.climate;
+
+import com.terraforged.mod.util.storage.PackedTile;
+
+/**
+ * A tile of climate cells packed as (px, py, biome, moisture, temperature) per cell. Climate
+ * values only depend on the cell so they are evaluated once per cell rather than per sample.
+ */
+public class ClimateTile extends PackedTile {
+    public static final int BITS = 3;
+
+    protected static final int STRIDE = 5;
+    protected static final int BIOME = 2;
+    protected static final int MOISTURE = 3;
+    protected static final int TEMPERATURE = 4;
+
+    public ClimateTile(int seed, int tileX, int tileY, CellWriter writer) {
+        super(seed, tileX, tileY, BITS, STRIDE, writer);
+    }
+
+    public float getBiome(int index) {
+        return data[index + BIOME];
+    }
+
+    public float getMoisture(int index) {
+        return data[index + MOISTURE];
+    }
+
+    public float getTemperature(int index) {
+        return data[index + TEMPERATURE];
+    }
+}
@@ -28,26 +28,33 @@ import com.terraforged.engine.util.pos.PosUtil;
 import com.terraforged.engine.world.heightmap.ControlPoints;
 import com.terraforged.mod.util.MathUtil;
 import com.terraforged.mod.util.SpiralIterator;
-import com.terraforged.mod.util.storage.LongCache;
-import com.terraforged.mod.util.storage.LossyCache;
-import com.terraforged.mod.util.storage.ObjectPool;
+import com.terraforged.mod.util.storage.PackedTile;
 import com.terraforged.mod.worldgen.noise.NoiseLevels;
 import com.terraforged.mod.worldgen.noise.continent.cell.CellPoint;
 import com.terraforged.mod.worldgen.noise.continent.cell.CellShape;
 import com.terraforged.mod.worldgen.noise.continent.cell.CellSource;
+import com.terraforged.mod.worldgen.noise.continent.cell.CellTile;
 import com.terraforged.mod.worldgen.noise.continent.config.ContinentConfig;
 import com.terraforged.mod.worldgen.noise.continent.river.RiverGenerator;
 import com.terraforged.mod.worldgen.noise.continent.shape.ShapeGenerator;
+import com.terraforged.mod.worldgen.util.ThreadPool;
+import com.terraforged.mod.worldgen.util.WorkerPool;
 import com.terraforged.noise.util.NoiseUtil;
 import com.terraforged.noise.util.Vec2f;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class ContinentGenerator {
     public static final int CONTINENT_SAMPLE_SCALE = 400;
 
     protected static final int SAMPLE_SEED_OFFSET = 6569;
     protected static final int VALID_SPAWN_RADIUS = 3;
     protected static final int SPAWN_SEARCH_RADIUS = 100_000;
-    protected static final int CELL_POINT_CACHE_SIZE = 2048;
+    protected static final int SPAWN_SEARCH_RINGS = 8;
+    protected static final int CELL_TILE_CACHE_SIZE = 64;
 
     public final int seed;
     public final float jitter;
@@ -60,10 +67,10 @@ public class ContinentGenerator {
     public final RiverGenerator riverGenerator;
     public final ShapeGenerator shapeGenerator;
 
-    private final ObjectPool<CellPoint> cellPool = ObjectPool.forCacheSize(CELL_POINT_CACHE_SIZE, CellPoint::new);
-    private final LongCache<CellPoint> cellCache = LossyCache.concurrent(CELL_POINT_CACHE_SIZE, CellPoint[]::new, cellPool);
+    private final PackedTile.Cache<CellTile> cellTiles = new PackedTile.Cache<>(CELL_TILE_CACHE_SIZE, CellTile.BITS, CellTile[]::new, this::createCellTile);
 
-    private volatile Vec2f offset = null;
+    private final Map<Integer, CompletableFuture<Vec2f>> offsets = new ConcurrentHashMap<>();
+    private volatile WorldOffset offset = null;
 
     public ContinentGenerator(ContinentConfig config, NoiseLevels levels, ControlPoints controlPoints) {
         this.levels = levels;
@@ -80,15 +87,39 @@ public class ContinentGenerator {
 
     public Vec2f getWorldOffset(int seed) {
         var offset = this.offset;
-        if (offset == null) {
-            this.offset = offset = computeWorldOffset(seed);
+        if (offset != null && offset.seed() == seed) {
+            return offset.value();
         }
-        return offset;
+
+        var value = ThreadPool.join(prepareWorldOffset(seed));
+        this.offset = new WorldOffset(seed, value);
+        return value;
+    }
+
+    /**
+     * Starts the spawn search for the seed on the worker pool if it is not already known or running.
+     */
+    public CompletableFuture<Vec2f> prepareWorldOffset(int seed) {
+        return offsets.computeIfAbsent(seed, s -> ThreadPool.EXECUTOR.supply(() -> computeWorldOffset(s), 0, 0, WorkerPool.NORMAL));
     }
 
+    /**
+     * Supplies a previously computed (eg persisted) offset so that the search can be skipped.
+     */
+    public void setWorldOffset(int seed, Vec2f offset) {
+        offsets.putIfAbsent(seed, CompletableFuture.completedFuture(offset));
+    }
+
+    /**
+     * Returns a copy of the cell. Hot paths should read from {@link #getCellTile} instead.
+     */
     public CellPoint getCell(int seed, int cx, int cy) {
-        long index = PosUtil.pack(cx, cy);
-        return cellCache.computeIfAbsent(seed, index, this::computeCell);
+        var tile = getCellTile(seed, cx, cy);
+        return tile.copyTo(tile.index(cx, cy), new CellPoint());
+    }
+
+    public CellTile getCellTile(int seed, int cx, int cy) {
+        return cellTiles.get(seed, cx, cy);
     }
 
     public long getNearestCell(int seed, float x, float y) {
@@ -106,8 +137,9 @@ public class ContinentGenerator {
 
         for (int cy = minY, i = 0; cy <= maxY; cy++) {
             for (int cx = minX; cx <= maxX; cx++, i++) {
-                var cell = getCell(seed, cx, cy);
-                float dist2 = NoiseUtil.dist2(x, y, cell.px, cell.py);
+                var tile = getCellTile(seed, cx, cy);
+                int index = tile.index(cx, cy);
+                float dist2 = NoiseUtil.dist2(x, y, tile.getX(index), tile.getY(index));
 
                 if (dist2 < distance) {
                     distance = dist2;
@@ -120,14 +152,18 @@ public class ContinentGenerator {
         return PosUtil.pack(nearestX, nearestY);
     }
 
-    private CellPoint computeCell(int seed, long index) {
-        return computeCell(seed, index, 0, 0, cellPool.take());
+    private CellTile createCellTile(int seed, int tileX, int tileY) {
+        return new CellTile(seed, tileX, tileY, this::computeCell);
     }
 
     private CellPoint computeCell(int seed, long index, int ox, int oy, CellPoint cell) {
         int cx = PosUtil.unpackLeft(index) + ox;
         int cy = PosUtil.unpackRight(index) + oy;
+        computeCell(seed, cx, cy, cell);
+        return cell;
+    }
 
+    private void computeCell(int seed, int cx, int cy, CellPoint cell) {
         int hash = MathUtil.hash(this.seed + seed, cx, cy);
         float px = cellShape.getCellX(hash, cx, cy, jitter);
         float py = cellShape.getCellY(hash, cx, cy, jitter);
@@ -139,8 +175,6 @@ public class ContinentGenerator {
         float freq = (CONTINENT_SAMPLE_SCALE / target);
 
         sampleCell(seed + sampleSeed, px, py,  cellSource,2, freq, 2.75f, 0.3f, cell);
-
-        return cell;
     }
 
     private static void sampleCell(int seed, float x, float y, CellSource cellSource, int octaves, float frequency, float lacunarity, float gain, CellPoint cell) {
@@ -166,27 +200,68 @@ public class ContinentGenerator {
     }
 
     private Vec2f computeWorldOffset(int seed) {
-        var iterator = new SpiralIterator(0, 0, 0, SPAWN_SEARCH_RADIUS);
-        var cell = new CellPoint();
+        // Rings are split into consecutive groups that are searched in parallel. The lowest group with
+        // a valid spawn wins, which is the same result as searching the spiral in order. Most spawns are
+        // near the origin so the first wave gives each group a single ring, doubling on each wave after.
+        int groups = ThreadPool.THREADS;
+        int groupRings = 1;
+        int start = 1;
+
+        @SuppressWarnings("unchecked")
+        var tasks = (CompletableFuture<Vec2f>[]) new CompletableFuture[groups];
 
-        while (iterator.hasNext()) {
-            long pos = iterator.next();
-            computeCell(seed, pos, 0, 0, cell);
+        while (start <= SPAWN_SEARCH_RADIUS) {
+            var found = new AtomicInteger(Integer.MAX_VALUE);
 
-            if (shapeGenerator.getThresholdValue(cell) == 0) {
-                continue;
+            for (int group = 0; group < groups; group++) {
+                int minRing = start + group * groupRings;
+                int maxRing = Math.min(minRing + groupRings - 1, SPAWN_SEARCH_RADIUS);
+                int index = group;
+
+                tasks[group] = ThreadPool.EXECUTOR.supply(() -> searchRings(seed, minRing, maxRing, index, found), 0, 0, WorkerPool.NORMAL);
             }
 
-            float px = cell.px;
-            float py = cell.py;
-            if (isValidSpawn(seed, pos, VALID_SPAWN_RADIUS, cell)) {
-                return new Vec2f(px, py);
+            for (var task : tasks) {
+                var offset = ThreadPool.join(task);
+                if (offset != null) {
+                    return offset;
+                }
             }
+
+            start += groups * groupRings;
+            groupRings = Math.min(groupRings * 2, SPAWN_SEARCH_RINGS);
         }
 
         return Vec2f.ZERO;
     }
 
+    private Vec2f searchRings(int seed, int minRing, int maxRing, int group, AtomicInteger found) {
+        var cell = new CellPoint();
+
+        for (int radius = minRing; radius <= maxRing; radius++) {
+            for (int i = 0, length = radius * 8; i < length; i++) {
+                // A lower group already has a result so this one can't be used
+                if (found.get() < group) return null;
+
+                long pos = SpiralIterator.getRingPosition(0, 0, radius, i);
+                computeCell(seed, pos, 0, 0, cell);
+
+                if (shapeGenerator.getThresholdValue(cell) == 0) {
+                    continue;
+                }
+
+                float px = cell.px;
+                float py = cell.py;
+                if (isValidSpawn(seed, pos, VALID_SPAWN_RADIUS, cell)) {
+                    found.accumulateAndGet(group, Math::min);
+                    return new Vec2f(px, py);
+                }
+            }
+        }
+
+        return null;
+    }
+
     private boolean isValidSpawn(int seed, long pos, int radius, CellPoint cell) {
         int radius2 = radius * radius;
 
@@ -206,4 +281,6 @@ public class ContinentGenerator {
 
         return true;
     }
+
+    private record WorldOffset(int seed, Vec2f value) {}
 }
@@ -33,6 +33,10 @@ import com.terraforged.mod.worldgen.noise.continent.config.ContinentConfig;
 import com.terraforged.mod.worldgen.terrain.TerrainLevels;
 import com.terraforged.noise.Source;
 import com.terraforged.noise.domain.Domain;
+import com.terraforged.noise.util.Vec2f;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class ContinentNoise implements IContinentNoise {
     protected final TerrainLevels levels;
@@ -42,6 +46,7 @@ public class ContinentNoise implements IContinentNoise {
 
     protected final Domain warp;
     protected final float frequency;
+    protected final ThreadLocal<WarpedPoint> localPoint = ThreadLocal.withInitial(WarpedPoint::new);
 
     public ContinentNoise(TerrainLevels levels, GeneratorContext context) {
         this.levels = levels;
@@ -66,36 +71,90 @@ public class ContinentNoise implements IContinentNoise {
         );
     }
 
+    @Override
+    public CompletableFuture<Vec2f> prepareWorldOffset(int seed) {
+        return generator.prepareWorldOffset(seed);
+    }
+
+    @Override
+    public void setWorldOffset(int seed, Vec2f offset) {
+        generator.setWorldOffset(seed, offset);
+    }
+
     @Override
     public void sampleContinent(int seed, float x, float y, NoiseSample sample) {
-        x *= frequency;
-        y *= frequency;
+        var point = getWarpedPoint(seed, x, y);
+        sampleShape(seed, point, sample);
+    }
 
-        float px = warp.getX(seed, x, y);
-        float py = warp.getY(seed, x, y);
+    @Override
+    public void sampleRiver(int seed, float x, float y, NoiseSample sample) {
+        var point = getWarpedPoint(seed, x, y);
+        generator.riverGenerator.sample(seed, point.px, point.py, sample);
+    }
 
-        var offset = generator.getWorldOffset(seed);
-        px += offset.x;
-        py += offset.y;
+    @Override
+    public void sample(int seed, float x, float y, NoiseSample sample) {
+        var point = getWarpedPoint(seed, x, y);
+        sampleShape(seed, point, sample);
+        generator.riverGenerator.sample(seed, point.px, point.py, sample);
+    }
 
-        generator.shapeGenerator.sample(seed, px, py, sample);
+    @Override
+    public void sample(int seed, float[] x, float[] y, NoiseSample[] samples, int count) {
+        var point = localPoint.get();
+        for (int i = 0; i < count; i++) {
+            warp(seed, x[i], y[i], point);
+            sampleShape(seed, point, samples[i]);
+            generator.riverGenerator.sample(seed, point.px, point.py, samples[i]);
+        }
+    }
+
+    protected void sampleShape(int seed, WarpedPoint point, NoiseSample sample) {
+        generator.shapeGenerator.sample(seed, point.px, point.py, sample);
 
         sample.terrainType = ContinentPoints.getTerrainType(sample.continentNoise);
     }
 
-    @Override
-    public void sampleRiver(int seed, float x, float y, NoiseSample sample) {
-        x *= frequency;
-        y *= frequency;
+    /**
+     * Returns the warped and offset continent-space point for the given noise coordinate.
+     * The last point is kept per-thread so that the continent and river samples taken for
+     * the same coordinate, with terrain sampled in between, only evaluate the warp once.
+     */
+    protected WarpedPoint getWarpedPoint(int seed, float x, float y) {
+        var point = localPoint.get();
+        if (point.seed == seed && point.x == x && point.y == y) {
+            return offset(seed, point);
+        }
+        return warp(seed, x, y, point);
+    }
+
+    protected WarpedPoint warp(int seed, float x, float y, WarpedPoint point) {
+        float nx = x * frequency;
+        float ny = y * frequency;
 
-        float px = warp.getX(seed, x, y);
-        float py = warp.getY(seed, x, y);
+        point.seed = seed;
+        point.x = x;
+        point.y = y;
+        point.wx = warp.getX(seed, nx, ny);
+        point.wy = warp.getY(seed, nx, ny);
 
+        return offset(seed, point);
+    }
+
+    protected WarpedPoint offset(int seed, WarpedPoint point) {
+        // Fixed per seed; blocks on the spawn search the first time a seed is sampled
         var offset = generator.getWorldOffset(seed);
-        px += offset.x;
-        py += offset.y;
+        point.px = point.wx + offset.x;
+        point.py = point.wy + offset.y;
+        return point;
+    }
 
-        generator.riverGenerator.sample(seed, px, py, sample);
+    @Override
+    public void addDebugInfo(List<String> lines) {
+        lines.add("");
+        lines.add("[Rivers]");
+        generator.riverGenerator.addDebugInfo(lines);
     }
 
     @Override
@@ -115,4 +174,14 @@ public class ContinentNoise implements IContinentNoise {
         config.shape.seed1 = context.seed.next();
         return new ContinentGenerator(config, levels, controlPoints);
     }
+
+    protected static class WarpedPoint {
+        protected int seed;
+        protected float x = Float.NaN;
+        protected float y = Float.NaN;
+        protected float wx;
+        protected float wy;
+        protected float px;
+        protected float py;
+    }
 }
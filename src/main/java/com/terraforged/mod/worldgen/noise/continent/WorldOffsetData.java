@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.terraforged.mod.worldgen.noise.continent;
+
+import com.terraforged.mod.worldgen.Generator;
+import com.terraforged.mod.worldgen.Seeds;
+import com.terraforged.noise.util.Vec2f;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.saveddata.SavedData;
+
+/**
+ * Remembers the continent world offset found by the spawn search in the level's data so that later
+ * loads of the same world can skip the search. The entry is ignored if the seed or generator config
+ * it was found for no longer match.
+ */
+public class WorldOffsetData extends SavedData {
+    public static final String NAME = "terraforged_world_offset";
+
+    protected boolean present;
+    protected int seed;
+    protected long configHash;
+    protected float x;
+    protected float y;
+
+    public boolean matches(int seed, long configHash) {
+        return present && this.seed == seed && this.configHash == configHash;
+    }
+
+    public Vec2f getOffset() {
+        return new Vec2f(x, y);
+    }
+
+    public void setOffset(int seed, long configHash, Vec2f offset) {
+        this.present = true;
+        this.seed = seed;
+        this.configHash = configHash;
+        this.x = offset.x;
+        this.y = offset.y;
+        setDirty();
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag) {
+        if (present) {
+            tag.putInt("seed", seed);
+            tag.putLong("config", configHash);
+            tag.putFloat("x", x);
+            tag.putFloat("y", y);
+        }
+        return tag;
+    }
+
+    public static WorldOffsetData load(CompoundTag tag) {
+        var data = new WorldOffsetData();
+        if (tag.contains("config")) {
+            data.present = true;
+            data.seed = tag.getInt("seed");
+            data.configHash = tag.getLong("config");
+            data.x = tag.getFloat("x");
+            data.y = tag.getFloat("y");
+        }
+        return data;
+    }
+
+    /**
+     * Restores the level's stored offset, or starts the search in the background and stores the
+     * result once it completes.
+     */
+    public static void prepare(ServerLevel level, Generator generator) {
+        int seed = Seeds.get(level);
+        var noiseGenerator = generator.getNoiseGenerator();
+        var continent = noiseGenerator.getContinent();
+        long configHash = noiseGenerator.getConfigHash();
+
+        var data = level.getDataStorage().computeIfAbsent(WorldOffsetData::load, WorldOffsetData::new, NAME);
+        if (data.matches(seed, configHash)) {
+            continent.setWorldOffset(seed, data.getOffset());
+            return;
+        }
+
+        var server = level.getServer();
+        continent.prepareWorldOffset(seed).thenAccept(offset -> server.execute(() -> data.setOffset(seed, configHash, offset)));
+    }
+}
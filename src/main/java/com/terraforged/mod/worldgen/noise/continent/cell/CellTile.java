@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.worldgen.noise.continent.cell;
+
+import com.terraforged.mod.util.storage.PackedTile;
+
+/**
+ * A tile of continent cells packed as (px, py, noise, noise0) per cell.
+ */
+public class CellTile extends PackedTile {
+    public static final int BITS = 4;
+
+    private static final int STRIDE = 4;
+    private static final int NOISE = 2;
+    private static final int NOISE0 = 3;
+
+    public CellTile(int seed, int tileX, int tileY, CellFunction function) {
+        super(seed, tileX, tileY, BITS, STRIDE, writer(function));
+    }
+
+    public float getNoise(int index) {
+        return data[index + NOISE];
+    }
+
+    public float getNoise0(int index) {
+        return data[index + NOISE0];
+    }
+
+    public CellPoint copyTo(int index, CellPoint cell) {
+        cell.px = data[index + PX];
+        cell.py = data[index + PY];
+        cell.noise = data[index + NOISE];
+        cell.noise0 = data[index + NOISE0];
+        return cell;
+    }
+
+    private static CellWriter writer(CellFunction function) {
+        var cell = new CellPoint();
+        return (seed, cx, cy, data, offset) -> {
+            function.compute(seed, cx, cy, cell);
+            data[offset + PX] = cell.px;
+            data[offset + PY] = cell.py;
+            data[offset + NOISE] = cell.noise;
+            data[offset + NOISE0] = cell.noise0;
+        };
+    }
+
+    public interface CellFunction {
+        void compute(int seed, int cx, int cy, CellPoint cell);
+    }
+}
@@ -29,6 +29,7 @@ import com.terraforged.mod.worldgen.noise.NoiseLevels;
 import com.terraforged.mod.worldgen.noise.NoiseSample;
 import com.terraforged.mod.worldgen.noise.continent.ContinentPoints;
 import com.terraforged.mod.worldgen.noise.continent.config.ContinentConfig;
+import com.terraforged.mod.worldgen.noise.continent.config.FloatRange;
 import com.terraforged.mod.worldgen.noise.continent.config.RiverConfig;
 import com.terraforged.noise.Module;
 import com.terraforged.noise.Source;
@@ -59,6 +60,14 @@ public class RiverCarver {
                 .ridge();
     }
 
+    public FloatRange getRiverValley() {
+        return riverConfig.valleyWidth;
+    }
+
+    public FloatRange getLakeValley() {
+        return lakeConfig.valleyWidth;
+    }
+
     public void carve(int seed, float x, float y, NoiseSample sample, CarverSample carverSample) {
         float erosion = erosionNoise.getValue(seed, x, y);
         float baseModifier = getBaseModifier(sample);
@@ -71,6 +80,16 @@ public class RiverCarver {
         sample.riverNoise = clipRiverNoise(sample);
     }
 
+    /**
+     * Applies the same changes as {@link #carve} does when neither sample is in reach of a river or lake.
+     */
+    public void skip(NoiseSample sample) {
+        float baseModifier = getBaseModifier(sample);
+
+        sample.baseNoise = sample.baseNoise * baseModifier;
+        sample.riverNoise = clipRiverNoise(sample);
+    }
+
     private float carve(NoiseSample sample, NodeSample nodeSample, RiverConfig config, float baseNoise, float baseModifier, float erosion) {
         float modifiedBaseNoise = getBaseNoise(sample, nodeSample, config, baseModifier);
         if (modifiedBaseNoise == -1f) return baseNoise;
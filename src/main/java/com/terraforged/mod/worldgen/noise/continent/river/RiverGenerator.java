@@ -28,7 +28,6 @@ import com.terraforged.engine.util.pos.PosUtil;
 import com.terraforged.mod.util.MathUtil;
 import com.terraforged.mod.util.storage.LongCache;
 import com.terraforged.mod.util.storage.LossyCache;
-import com.terraforged.mod.util.storage.ObjectPool;
 import com.terraforged.mod.worldgen.noise.NoiseSample;
 import com.terraforged.mod.worldgen.noise.continent.ContinentGenerator;
 import com.terraforged.mod.worldgen.noise.continent.cell.CellPoint;
@@ -38,6 +37,9 @@ import com.terraforged.noise.domain.Domain;
 import com.terraforged.noise.util.NoiseUtil;
 import com.terraforged.noise.util.Vec2i;
 
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
 public class RiverGenerator {
     public static final Vec2i[] DIRS = {new Vec2i(1, 0), new Vec2i(0, 1), new Vec2i(-1, 0), new Vec2i(0, -1)};
 
@@ -48,7 +50,11 @@ public class RiverGenerator {
     private static final int SIZE_B_OFFSET = 28387;
     private static final int LAKE_CHANCE_OFFSET = 37171;
 
-    private static final int RIVER_CACHE_SIZE = 1024;
+    private static final int NETWORK_SIZE = 8;
+    private static final int NETWORK_CACHE_SIZE = 64;
+    private static final float WARP_STRENGTH = 0.004f;
+    // Generous bound on how far the river warp can move a point
+    private static final float WARP_MARGIN = WARP_STRENGTH * 2;
 
     private final float lakeDensity;
     private final ContinentGenerator continent;
@@ -56,8 +62,9 @@ public class RiverGenerator {
     private final Domain riverWarp;
     private final ThreadLocal<CarverSample> localRiverSample = ThreadLocal.withInitial(CarverSample::new);
 
-    private final ObjectPool<RiverPieces> pool = ObjectPool.forCacheSize(RIVER_CACHE_SIZE, RiverPieces::new);
-    private final LongCache<RiverPieces> cache = LossyCache.concurrent(RIVER_CACHE_SIZE, RiverPieces[]::new, pool);
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongCache<RiverNetwork> networks = LossyCache.concurrent(NETWORK_CACHE_SIZE, RiverNetwork[]::new);
 
     public RiverGenerator(ContinentGenerator continent, ContinentConfig config) {
         this.continent = continent;
@@ -66,11 +73,19 @@ public class RiverGenerator {
         this.riverWarp = Domain.warp(
                 Source.builder().seed(X_OFFSET).frequency(30).simplex(),
                 Source.builder().seed(Y_OFFSET).frequency(30).simplex(),
-                Source.constant(0.004)
+                Source.constant(WARP_STRENGTH)
         );
     }
 
     public void sample(int seed, float x, float y, NoiseSample sample) {
+        samples.increment();
+
+        if (isOutOfReach(seed, x, y)) {
+            skipped.increment();
+            riverCarver.skip(sample);
+            return;
+        }
+
         float px = riverWarp.getX(seed, x, y);
         float py = riverWarp.getY(seed, x, y);
 
@@ -90,51 +105,51 @@ public class RiverGenerator {
         x = continent.cellShape.adjustX(x);
         y = continent.cellShape.adjustY(y);
 
-        int minX = centreX - 1;
-        int minY = centreY - 1;
-        int maxX = centreX + 1;
-        int maxY = centreY + 1;
-
-        RiverNode river = null;
-        RiverNode lake = null;
-
-        for (int cy = minY; cy <= maxY; cy++) {
-            for (int cx = minX; cx <= maxX; cx++) {
-                var pieces = getNodes(seed, cx, cy);
-
-                for (int i = 0; i < pieces.riverCount(); i++) {
-                    var node = pieces.river(i);
-                    river = sampleNode(x, y, node, river, sample.river);
-                }
+        var network = getNetwork(seed, centreX, centreY);
 
-                for (int i = 0; i < pieces.lakeCount(); i++) {
-                    var node = pieces.lake(i);
-                    lake = sampleNode(x, y, node, lake, sample.lake);
-                }
-            }
-        }
+        var rivers = network.rivers();
+        int river = rivers.findNearest(x, y, centreX, centreY, sample.river);
+        recordNode(rivers, river, sample.river);
 
-        recordNode(river, sample.river);
-        recordNode(lake, sample.lake);
+        var lakes = network.lakes();
+        int lake = lakes.findNearest(x, y, centreX, centreY, sample.lake);
+        recordNode(lakes, lake, sample.lake);
     }
 
-    private RiverNode sampleNode(float x, float y, RiverNode node, RiverNode nearest, NodeSample sample) {
-        float t = node.getProjection(x, y);
-        float d = node.getDistance2(x, y, t);
+    /**
+     * Returns true if no river or lake segment can reach the point wherever the warp moves it,
+     * in which case carving would leave everything but the base noise modifier untouched.
+     */
+    private boolean isOutOfReach(int seed, float x, float y) {
+        float minX = continent.cellShape.adjustX(x - WARP_MARGIN);
+        float minY = continent.cellShape.adjustY(y - WARP_MARGIN);
+        float maxX = continent.cellShape.adjustX(x + WARP_MARGIN);
+        float maxY = continent.cellShape.adjustY(y + WARP_MARGIN);
+
+        // The network must hold every cell that could own a candidate segment, which it only
+        // guarantees when the warped point's cell is known up front
+        int cellX = NoiseUtil.floor(minX);
+        int cellY = NoiseUtil.floor(minY);
+        if (cellX != NoiseUtil.floor(maxX) || cellY != NoiseUtil.floor(maxY)) return false;
+
+        var network = getNetwork(seed, cellX, cellY);
+
+        return !network.rivers().intersects(minX, minY, maxX, maxY)
+                && !network.lakes().intersects(minX, minY, maxX, maxY);
+    }
 
-        if (d < sample.distance) {
-            nearest = node;
-            sample.distance = d;
-            sample.projection = t;
-        }
+    public void addDebugInfo(List<String> lines) {
+        long samples = this.samples.sum();
+        long skipped = this.skipped.sum();
+        double skipRate = samples == 0 ? 0.0 : skipped / (double) samples;
 
-        return nearest;
+        lines.add(String.format("Skipped: %s / %s samples (%.1f%%)", skipped, samples, skipRate * 100));
     }
 
-    private void recordNode(RiverNode node, NodeSample sample) {
-        if (node != null) {
-            float level = node.getHeight(sample.projection);
-            float radius = node.getRadius(sample.projection);
+    private void recordNode(RiverNetwork.Segments segments, int segment, NodeSample sample) {
+        if (segment != -1) {
+            float level = segments.getHeight(segment, sample.projection);
+            float radius = segments.getRadius(segment, sample.projection);
             sample.distance = NoiseUtil.sqrt(sample.distance);
             sample.position = radius;
             sample.level = continent.shapeGenerator.getBaseNoise(level);
@@ -143,17 +158,17 @@ public class RiverGenerator {
         }
     }
 
-    private RiverPieces getNodes(int seed, int x, int y) {
-        long index = PosUtil.pack(x, y);
-        return cache.computeIfAbsent(seed, index, this::computeNodes);
-    }
+    private RiverNetwork getNetwork(int seed, int cellX, int cellY) {
+        int regionX = Math.floorDiv(cellX, NETWORK_SIZE);
+        int regionY = Math.floorDiv(cellY, NETWORK_SIZE);
+        var network = networks.computeIfAbsent(seed, PosUtil.pack(regionX, regionY), RiverGenerator::createNetwork);
 
-    private RiverPieces computeNodes(int seed, long index) {
-        int ax = PosUtil.unpackLeft(index);
-        int ay = PosUtil.unpackRight(index);
+        return network.generate(this::computeNodes, riverCarver.getRiverValley(), riverCarver.getLakeValley());
+    }
 
+    private void computeNodes(int seed, int ax, int ay, RiverPieces pieces) {
         var a = continent.getCell(seed, ax, ay);
-        if (continent.shapeGenerator.getThresholdValue(a) <= 0) return RiverPieces.NONE;
+        if (continent.shapeGenerator.getThresholdValue(a) <= 0) return;
 
         var min = a;
         float minValue = getBaseValue(a);
@@ -162,7 +177,6 @@ public class RiverGenerator {
         float ar = getRadius(a.noise(), 0, 1);
 
         boolean isSource = true;
-        var pieces = pool.take();
         for (var dir : DIRS) {
             int bx = ax + dir.x;
             int by = ay + dir.y;
@@ -193,13 +207,12 @@ public class RiverGenerator {
 
         // No lower-neighbour to connect to
         if (min == a) {
-            return pieces;
+            return;
         }
 
         // Cull tiny chode-rivers
         if (isSource && pieces.riverCount() == 0 && minValue <= 0) {
-            pool.restore(pieces);
-            return RiverPieces.NONE;
+            return;
         }
 
         float bh = getHeight(min.noise(), 0, 1);
@@ -211,8 +224,10 @@ public class RiverGenerator {
         if (isSource && hasLake(a, hash)) {
             addLakeNodes(a, min, seed, ah, hash, pieces);
         }
+    }
 
-        return pieces;
+    private static RiverNetwork createNetwork(int seed, long index) {
+        return new RiverNetwork(seed, PosUtil.unpackLeft(index), PosUtil.unpackRight(index), NETWORK_SIZE);
     }
 
     private void addRiverNodes(CellPoint a, CellPoint b, int seed, float ah, float bh, float ar, float br, int hash, RiverPieces pieces) {
@@ -0,0 +1,339 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.terraforged.mod.worldgen.noise.continent.river;
+
+import com.terraforged.mod.worldgen.noise.continent.config.FloatRange;
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+/**
+ * The river graph for a square region of continent cells, built once and then queried for
+ * every sample that falls inside it. Segments are stored in flat arrays and bucketed into a
+ * uniform grid by their bounds, padded by the widest valley they can carve, so a query only
+ * measures the segments that could affect the point.
+ */
+public class RiverNetwork {
+    private static final int NODE_STRIDE = 9;
+    private static final int BINS_PER_CELL = 4;
+    private static final int MAX_BINS = 256;
+    private static final float BOUNDS_EPSILON = 1e-4f;
+
+    protected final int seed;
+    protected final int minCellX;
+    protected final int minCellY;
+    protected final int maxCellX;
+    protected final int maxCellY;
+
+    protected Segments rivers = Segments.EMPTY;
+    protected Segments lakes = Segments.EMPTY;
+
+    protected volatile boolean done;
+
+    public RiverNetwork(int seed, int regionX, int regionY, int regionSize) {
+        this.seed = seed;
+        // Samples look at the 3x3 cells around their nearest cell, which is itself within one
+        // cell of the cell containing the point, so include a two cell apron
+        this.minCellX = regionX * regionSize - 2;
+        this.minCellY = regionY * regionSize - 2;
+        this.maxCellX = minCellX + regionSize + 3;
+        this.maxCellY = minCellY + regionSize + 3;
+    }
+
+    public int getSeed() {
+        return seed;
+    }
+
+    public Segments rivers() {
+        return rivers;
+    }
+
+    public Segments lakes() {
+        return lakes;
+    }
+
+    public RiverNetwork generate(PieceFunction function, FloatRange riverValley, FloatRange lakeValley) {
+        if (done) return this;
+
+        synchronized (this) {
+            if (done) return this;
+
+            var riverBuilder = new Builder(riverValley);
+            var lakeBuilder = new Builder(lakeValley);
+            var pieces = new RiverPieces();
+
+            // Row-major so that candidates keep the same order as a scan of the 3x3 neighbourhood
+            for (int cy = minCellY; cy <= maxCellY; cy++) {
+                for (int cx = minCellX; cx <= maxCellX; cx++) {
+                    function.compute(seed, cx, cy, pieces.reset());
+
+                    for (int i = 0; i < pieces.riverCount(); i++) {
+                        riverBuilder.add(pieces.river(i), cx, cy);
+                    }
+
+                    for (int i = 0; i < pieces.lakeCount(); i++) {
+                        lakeBuilder.add(pieces.lake(i), cx, cy);
+                    }
+                }
+            }
+
+            rivers = riverBuilder.build();
+            lakes = lakeBuilder.build();
+            done = true;
+        }
+
+        return this;
+    }
+
+    public interface PieceFunction {
+        void compute(int seed, int cx, int cy, RiverPieces pieces);
+    }
+
+    public static class Segments {
+        protected static final Segments EMPTY = new Segments(new float[0], new float[0], new int[0], 0, 0, 1, 1, 1, new int[2], new int[0]);
+
+        protected final float[] nodes;
+        protected final float[] bounds;
+        protected final int[] owners;
+        protected final float minX;
+        protected final float minY;
+        protected final float scale;
+        protected final int columns;
+        protected final int rows;
+        protected final int[] binStart;
+        protected final int[] binItems;
+
+        protected Segments(float[] nodes, float[] bounds, int[] owners, float minX, float minY, float scale, int columns, int rows, int[] binStart, int[] binItems) {
+            this.nodes = nodes;
+            this.bounds = bounds;
+            this.owners = owners;
+            this.minX = minX;
+            this.minY = minY;
+            this.scale = scale;
+            this.columns = columns;
+            this.rows = rows;
+            this.binStart = binStart;
+            this.binItems = binItems;
+        }
+
+        /**
+         * Finds the segment nearest to the point among those owned by the 3x3 cells around
+         * the given cell. Segments whose padded bounds do not contain the point are skipped
+         * since they are too far away for the carver to reach it.
+         *
+         * @return the index of the nearest segment or -1 if none are in reach
+         */
+        public int findNearest(float x, float y, int cellX, int cellY, NodeSample sample) {
+            if (x < minX || y < minY) return -1;
+
+            int column = (int) ((x - minX) * scale);
+            int row = (int) ((y - minY) * scale);
+            if (column >= columns || row >= rows) return -1;
+
+            int bin = row * columns + column;
+            int start = binStart[bin];
+            int end = binStart[bin + 1];
+
+            int nearest = -1;
+            for (int i = start; i < end; i++) {
+                int segment = binItems[i];
+
+                int owner = segment << 1;
+                if (Math.abs(owners[owner] - cellX) > 1 || Math.abs(owners[owner + 1] - cellY) > 1) continue;
+
+                int b = segment << 2;
+                if (x < bounds[b] || x > bounds[b + 2] || y < bounds[b + 1] || y > bounds[b + 3]) continue;
+
+                int n = segment * NODE_STRIDE;
+                float ax = nodes[n];
+                float ay = nodes[n + 1];
+                float bx = nodes[n + 2];
+                float by = nodes[n + 3];
+
+                float t = RiverNode.getProjection(ax, ay, bx, by, x, y);
+                float d = RiverNode.getDistance2(ax, ay, bx, by, nodes[n + 8], x, y, t);
+
+                if (d < sample.distance) {
+                    nearest = segment;
+                    sample.distance = d;
+                    sample.projection = t;
+                }
+            }
+
+            return nearest;
+        }
+
+        /**
+         * Returns true if the padded bounds of any segment, regardless of owner, overlap the box.
+         */
+        public boolean intersects(float x0, float y0, float x1, float y1) {
+            if (x1 < minX || y1 < minY) return false;
+
+            int c0 = Math.max(0, (int) ((x0 - minX) * scale));
+            int r0 = Math.max(0, (int) ((y0 - minY) * scale));
+            int c1 = Math.min(columns - 1, (int) ((x1 - minX) * scale));
+            int r1 = Math.min(rows - 1, (int) ((y1 - minY) * scale));
+
+            for (int row = r0; row <= r1; row++) {
+                for (int column = c0; column <= c1; column++) {
+                    int bin = row * columns + column;
+
+                    for (int i = binStart[bin], end = binStart[bin + 1]; i < end; i++) {
+                        int b = binItems[i] << 2;
+                        if (x1 >= bounds[b] && x0 <= bounds[b + 2] && y1 >= bounds[b + 1] && y0 <= bounds[b + 3]) {
+                            return true;
+                        }
+                    }
+                }
+            }
+
+            return false;
+        }
+
+        public float getHeight(int segment, float t) {
+            int n = segment * NODE_STRIDE;
+            float ah = nodes[n + 4];
+            return ah + t * (nodes[n + 5] - ah);
+        }
+
+        public float getRadius(int segment, float t) {
+            int n = segment * NODE_STRIDE;
+            float ar = nodes[n + 6];
+            return ar + t * (nodes[n + 7] - ar);
+        }
+    }
+
+    private static class Builder {
+        private final FloatRange valley;
+        private final FloatArrayList nodes = new FloatArrayList();
+        private final FloatArrayList bounds = new FloatArrayList();
+        private final IntArrayList owners = new IntArrayList();
+        private float reach = 0;
+
+        private Builder(FloatRange valley) {
+            this.valley = valley;
+        }
+
+        private void add(RiverNode node, int cx, int cy) {
+            nodes.add(node.ax());
+            nodes.add(node.ay());
+            nodes.add(node.bx());
+            nodes.add(node.by());
+            nodes.add(node.ah());
+            nodes.add(node.bh());
+            nodes.add(node.ar());
+            nodes.add(node.br());
+            nodes.add(node.displacement());
+
+            // The curve bows at most |displacement| * length away from the straight line
+            float dx = node.bx() - node.ax();
+            float dy = node.by() - node.ay();
+            float bow = Math.abs(node.displacement()) * (float) Math.sqrt(dx * dx + dy * dy);
+
+            bounds.add(Math.min(node.ax(), node.bx()) - bow);
+            bounds.add(Math.min(node.ay(), node.by()) - bow);
+            bounds.add(Math.max(node.ax(), node.bx()) + bow);
+            bounds.add(Math.max(node.ay(), node.by()) + bow);
+
+            // The valley width varies linearly with the radius between the two end points
+            reach = Math.max(reach, Math.max(valley.at(node.ar()), valley.at(node.br())));
+
+            owners.add(cx);
+            owners.add(cy);
+        }
+
+        private Segments build() {
+            int count = owners.size() >> 1;
+            if (count == 0) return Segments.EMPTY;
+
+            float[] bounds = this.bounds.toFloatArray();
+
+            // Pad every segment by the widest valley in the set. A nearer segment with a narrower
+            // valley must still win the query (and carve nothing) rather than be skipped in favour
+            // of a further one whose valley happens to reach the point.
+            float pad = reach + BOUNDS_EPSILON;
+            for (int i = 0; i < bounds.length; i += 4) {
+                bounds[i] -= pad;
+                bounds[i + 1] -= pad;
+                bounds[i + 2] += pad;
+                bounds[i + 3] += pad;
+            }
+
+            float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+            float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+            for (int i = 0; i < bounds.length; i += 4) {
+                minX = Math.min(minX, bounds[i]);
+                minY = Math.min(minY, bounds[i + 1]);
+                maxX = Math.max(maxX, bounds[i + 2]);
+                maxY = Math.max(maxY, bounds[i + 3]);
+            }
+
+            // Coarsen the bins if a stray segment stretches the grid too far
+            float extent = Math.max(maxX - minX, maxY - minY);
+            float scale = Math.min(BINS_PER_CELL, (MAX_BINS - 1) / extent);
+            int columns = 1 + (int) ((maxX - minX) * scale);
+            int rows = 1 + (int) ((maxY - minY) * scale);
+
+            // Counting pass then fill pass to lay the bins out contiguously (CSR)
+            int[] binStart = new int[columns * rows + 1];
+            for (int i = 0; i < count; i++) {
+                forEachBin(bounds, i, minX, minY, scale, columns, rows, binStart, null);
+            }
+
+            for (int i = 1; i < binStart.length; i++) {
+                binStart[i] += binStart[i - 1];
+            }
+
+            int[] binItems = new int[binStart[binStart.length - 1]];
+            int[] cursor = binStart.clone();
+
+            // Segments are added in insertion order so each bin lists them in that order too
+            for (int i = 0; i < count; i++) {
+                forEachBin(bounds, i, minX, minY, scale, columns, rows, cursor, binItems);
+            }
+
+            return new Segments(nodes.toFloatArray(), bounds, owners.toIntArray(), minX, minY, scale, columns, rows, binStart, binItems);
+        }
+
+        private static void forEachBin(float[] bounds, int segment, float minX, float minY, float scale, int columns, int rows, int[] counts, int[] items) {
+            int b = segment << 2;
+            int x0 = Math.min(columns - 1, (int) ((bounds[b] - minX) * scale));
+            int y0 = Math.min(rows - 1, (int) ((bounds[b + 1] - minY) * scale));
+            int x1 = Math.min(columns - 1, (int) ((bounds[b + 2] - minX) * scale));
+            int y1 = Math.min(rows - 1, (int) ((bounds[b + 3] - minY) * scale));
+
+            for (int y = y0; y <= y1; y++) {
+                for (int x = x0; x <= x1; x++) {
+                    int bin = y * columns + x;
+                    if (items == null) {
+                        counts[bin + 1]++;
+                    } else {
+                        items[counts[bin]++] = segment;
+                    }
+                }
+            }
+        }
+    }
+}
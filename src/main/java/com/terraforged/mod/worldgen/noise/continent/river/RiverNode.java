@@ -30,6 +30,14 @@ import com.terraforged.noise.util.NoiseUtil;
 
 public record RiverNode(float ax, float ay, float bx, float by, float ah, float bh, float ar, float br, float displacement) {
     public float getProjection(float x, float y) {
+        return getProjection(ax, ay, bx, by, x, y);
+    }
+
+    public float getDistance2(float x, float y, float t) {
+        return getDistance2(ax, ay, bx, by, displacement, x, y, t);
+    }
+
+    public static float getProjection(float ax, float ay, float bx, float by, float x, float y) {
         float dx = bx - ax;
         float dy = by - ay;
         float v = (x - ax) * dx + (y - ay) * dy;
@@ -37,7 +45,7 @@ public record RiverNode(float ax, float ay, float bx, float by, float ah, float
         return v < 0 ? 0 : v > 1 ? 1 : v;
     }
 
-    public float getDistance2(float x, float y, float t) {
+    public static float getDistance2(float ax, float ay, float bx, float by, float displacement, float x, float y, float t) {
         float pad = 0.05f;
 
         float alpha = NoiseUtil.map(t, pad, 1.0f - pad, 1.0f - pad * 2);
@@ -45,8 +53,8 @@ public record RiverNode(float ax, float ay, float bx, float by, float ah, float
         alpha = Interpolation.CURVE3.apply(alpha);
         alpha *= displacement;
 
-        float tx = getX(t);
-        float ty = getY(t);
+        float tx = ax + t * (bx - ax);
+        float ty = ay + t * (by - ay);
 
         float px = tx - (by - ay) * alpha;
         float py = ty + (bx - ax) * alpha;
@@ -27,7 +27,6 @@ package com.terraforged.mod.worldgen.noise.continent.river;
 import java.util.Arrays;
 
 public class RiverPieces {
-    public static final RiverPieces NONE = new RiverPieces();
     private static final int INITIAL_SIZE = RiverGenerator.DIRS.length;
     private static final int GROW_AMOUNT = 1;
 
@@ -59,7 +59,11 @@ public class ShapeGenerator {
     }
 
     public float getThresholdValue(CellPoint cell) {
-        return cell.noise < threshold ? 0f : 1f;
+        return getThresholdValue(cell.noise);
+    }
+
+    public float getThresholdValue(float noise) {
+        return noise < threshold ? 0f : 1f;
     }
 
     public float getFalloff(float continentNoise) {
@@ -93,12 +97,14 @@ public class ShapeGenerator {
 
         for (int cy = minY, i = 0; cy <= maxY; cy++) {
             for (int cx = minX; cx <= maxX; cx++, i++) {
-                var cell = continent.getCell(seed, cx, cy);
+                var tile = continent.getCellTile(seed, cx, cy);
+                int index = tile.index(cx, cy);
                 var local = buffer[i];
 
-                float distance = NoiseUtil.sqrt(NoiseUtil.dist2(x, y, cell.px, cell.py));
+                float distance = NoiseUtil.sqrt(NoiseUtil.dist2(x, y, tile.getX(index), tile.getY(index)));
 
-                local.cell = cell;
+                local.noise = tile.getNoise(index);
+                local.noise0 = tile.getNoise0(index);
                 local.context = distance;
 
                 if (distance < min0) {
@@ -127,8 +133,8 @@ public class ShapeGenerator {
 
         for (var local : buffer) {
             float dist = local.context;
-            float baseValue = local.cell.noise();
-            float continentValue = getThresholdValue(local.cell);
+            float baseValue = local.noise0;
+            float continentValue = getThresholdValue(local.noise);
 
             float baseWeight = getWeight(dist, min0, baseBlend);
             float continentWeight = getWeight(dist, min0, continentBlend);
@@ -154,7 +160,8 @@ public class ShapeGenerator {
     }
 
     protected static class CellLocal {
-        public CellPoint cell;
+        public float noise;
+        public float noise0;
         public float context;
 
         protected static CellLocal[] init() {
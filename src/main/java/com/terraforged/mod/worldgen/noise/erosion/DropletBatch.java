@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.terraforged.mod.worldgen.noise.erosion;
+
+/**
+ * Structure-of-arrays state for a batch of droplets that are advanced in
+ * lockstep by {@link ErosionFilter}. Retired droplets are compacted out while
+ * preserving order so the simulation stays deterministic.
+ */
+public class DropletBatch {
+    protected final int capacity;
+    protected int size;
+
+    protected final float[] posX;
+    protected final float[] posY;
+    protected final float[] dirX;
+    protected final float[] dirY;
+    protected final float[] speed;
+    protected final float[] water;
+    protected final float[] sediment;
+
+    // Per-step scratch, not carried over by compaction
+    protected final int[] node;
+    protected final float[] offsetX;
+    protected final float[] offsetY;
+    protected final float[] height;
+    protected final float[] gradX;
+    protected final float[] gradY;
+    protected final float[] delta;
+    protected final boolean[] alive;
+
+    public DropletBatch(int capacity) {
+        this.capacity = capacity;
+        this.posX = new float[capacity];
+        this.posY = new float[capacity];
+        this.dirX = new float[capacity];
+        this.dirY = new float[capacity];
+        this.speed = new float[capacity];
+        this.water = new float[capacity];
+        this.sediment = new float[capacity];
+        this.node = new int[capacity];
+        this.offsetX = new float[capacity];
+        this.offsetY = new float[capacity];
+        this.height = new float[capacity];
+        this.gradX = new float[capacity];
+        this.gradY = new float[capacity];
+        this.delta = new float[capacity];
+        this.alive = new boolean[capacity];
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void add(float x, float y, float initialSpeed, float initialWater) {
+        int i = size++;
+        posX[i] = x;
+        posY[i] = y;
+        dirX[i] = 0F;
+        dirY[i] = 0F;
+        speed[i] = initialSpeed;
+        water[i] = initialWater;
+        sediment[i] = 0F;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void compact() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (!alive[i]) continue;
+
+            if (count != i) {
+                posX[count] = posX[i];
+                posY[count] = posY[i];
+                dirX[count] = dirX[i];
+                dirY[count] = dirY[i];
+                speed[count] = speed[i];
+                water[count] = water[i];
+                sediment[count] = sediment[i];
+            }
+            count++;
+        }
+        size = count;
+    }
+}
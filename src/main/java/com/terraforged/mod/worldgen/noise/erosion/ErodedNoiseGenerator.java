@@ -33,7 +33,10 @@ import com.terraforged.mod.util.storage.ObjectPool;
 import com.terraforged.mod.worldgen.noise.*;
 import com.terraforged.mod.worldgen.terrain.TerrainLevels;
 import com.terraforged.mod.worldgen.util.ThreadPool;
+import com.terraforged.mod.worldgen.util.WorkerPool;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.IntFunction;
@@ -41,18 +44,30 @@ import java.util.function.Supplier;
 
 public class ErodedNoiseGenerator implements INoiseGenerator {
     private static final int CACHE_SIZE = 256;
+    // Chunks per region side, region mode is off below 2
+    protected static final int REGION_SIZE = Integer.getInteger("terraforged.erosion.region_size", 0);
+    protected static final int REGION_CACHE_SIZE = Integer.getInteger("terraforged.erosion.region_cache", 16);
+    protected static final int REGION_APRON = 1;
+    // Half-width in blocks of the band either side of a region border that blends into the neighbour
+    protected static final float REGION_BLEND = 8F;
     private static final Supplier<float[]> CHUNK_ALLOCATOR = () -> new float[16 * 16];
     private static final IntFunction<CompletableFuture<float[]>[]> CHUNK_TASK_ALLOCATOR = CompletableFuture[]::new;
 
     protected final NoiseTileSize tileSize;
     protected final ErosionFilter erosion;
     protected final NoiseGenerator generator;
+    protected final ErosionBudget budget;
+    protected final long erosionHash;
     protected final ThreadLocal<NoiseSample> localSample;
     protected final ThreadLocal<NoiseResource> localResource;
 
     protected final ObjectPool<float[]> pool;
     protected final LongCache<CompletableFuture<float[]>> cache;
 
+    protected final ErosionFilter regionErosion;
+    protected final LongCache<ErosionRegion> regions;
+    protected final ErosionStore store;
+
     public ErodedNoiseGenerator(NoiseTileSize tileSize, NoiseGenerator generator) {
         var settings = new FilterSettings.Erosion();
         settings.dropletsPerChunk = 350;
@@ -60,10 +75,15 @@ public class ErodedNoiseGenerator implements INoiseGenerator {
         this.tileSize = tileSize;
         this.generator = generator;
         this.erosion = new ErosionFilter(tileSize.regionLength, settings);
+        this.budget = ErosionBudget.ADAPTIVE ? new ErosionBudget(settings.dropletsPerChunk, generator.getLevels()) : null;
+        this.erosionHash = getErosionHash(tileSize, settings, budget);
         this.localSample = ThreadLocal.withInitial(NoiseSample::new);
         this.localResource = ThreadLocal.withInitial(() -> new NoiseResource(tileSize));
         this.pool = ObjectPool.forCacheSize(CACHE_SIZE, CHUNK_ALLOCATOR);
         this.cache = LossyCache.concurrent(CACHE_SIZE, CHUNK_TASK_ALLOCATOR, this::restore);
+        this.regionErosion = isRegional() ? new ErosionFilter((REGION_SIZE + REGION_APRON * 2) << 4, settings) : null;
+        this.regions = isRegional() ? LossyCache.concurrent(REGION_CACHE_SIZE, ErosionRegion[]::new) : null;
+        this.store = ErosionStore.create(getConfigHash());
     }
 
     @Override
@@ -101,16 +121,56 @@ public class ErodedNoiseGenerator implements INoiseGenerator {
         return generator.find(seed, x, z, minRadius, maxRadius, terrain);
     }
 
+    @Override
+    public long getConfigHash() {
+        return 31 * generator.getConfigHash() + erosionHash;
+    }
+
+    @Override
+    public void close() {
+        generator.close();
+
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Override
+    public void addDebugInfo(List<String> lines) {
+        generator.addDebugInfo(lines);
+
+        if (budget == null && store == null) return;
+
+        lines.add("");
+        lines.add("[Erosion]");
+        if (budget != null) {
+            budget.addDebugInfo(lines);
+        }
+        if (store != null) {
+            store.addDebugInfo(lines);
+        }
+    }
+
     @Override
     public void generate(int seed, int chunkX, int chunkZ, Consumer<NoiseData> consumer) {
         try {
             var resource = localResource.get();
 
-            collectNeighbours(seed, chunkX, chunkZ, resource);
-            generateCenterChunk(seed, chunkX, chunkZ, resource);
-            awaitNeighbours(resource);
+            if (!readStored(seed, chunkX, chunkZ, resource)) {
+                if (isRegional()) {
+                    generateRegional(seed, chunkX, chunkZ, resource);
+                } else {
+                    collectNeighbours(seed, chunkX, chunkZ, resource);
+                    generateCenterChunk(seed, chunkX, chunkZ, resource);
+                    awaitNeighbours(resource);
+                    generateErosion(seed, chunkX, chunkZ, resource);
+                }
+
+                if (store != null) {
+                    store.write(seed, chunkX, chunkZ, tileSize, resource.heightmap);
+                }
+            }
 
-            generateErosion(seed, chunkX, chunkZ, resource);
             generateRivers(seed, chunkX, chunkZ, resource);
 
             consumer.accept(resource.chunk);
@@ -119,6 +179,86 @@ public class ErodedNoiseGenerator implements INoiseGenerator {
         }
     }
 
+    public boolean isRegional() {
+        return REGION_SIZE > 1;
+    }
+
+    protected void generateRegional(int seed, int chunkX, int chunkZ, NoiseResource resource) {
+        generateCenterChunk(seed, chunkX, chunkZ, resource);
+
+        int regionX = Math.floorDiv(chunkX, REGION_SIZE);
+        int regionZ = Math.floorDiv(chunkZ, REGION_SIZE);
+
+        int startX = chunkX << 4;
+        int startZ = chunkZ << 4;
+
+        int min = resource.chunk.min();
+        int max = resource.chunk.max();
+
+        try {
+            for (int dz = min; dz < max; dz++) {
+                for (int dx = min; dx < max; dx++) {
+                    int tileIndex = tileSize.indexOfRel(dx, dz);
+                    resource.heightmap[tileIndex] = getRegionHeight(seed, startX + dx, startZ + dz, regionX, regionZ, resource);
+                }
+            }
+        } finally {
+            Arrays.fill(resource.regions, null);
+        }
+    }
+
+    protected boolean readStored(int seed, int chunkX, int chunkZ, NoiseResource resource) {
+        if (store == null || !store.contains(seed, chunkX, chunkZ)) return false;
+
+        // The centre samples are still needed for the river stage, only erosion is skipped
+        generateCenterChunk(seed, chunkX, chunkZ, resource);
+
+        // The slot can disappear between contains and read (eg the region was evicted and failed to reopen)
+        return store.read(seed, chunkX, chunkZ, tileSize, resource.heightmap);
+    }
+
+    protected float getRegionHeight(int seed, int x, int z, int regionX, int regionZ, NoiseResource resource) {
+        int length = REGION_SIZE << 4;
+
+        int rx = Math.floorDiv(x, length);
+        int rz = Math.floorDiv(z, length);
+
+        float lx = x - rx * length + 0.5F;
+        float lz = z - rz * length + 0.5F;
+
+        int nx = getBlendSide(lx, length);
+        int nz = getBlendSide(lz, length);
+
+        float wx = getBlendWeight(lx, nx, length);
+        float wz = getBlendWeight(lz, nz, length);
+
+        // Bilinear mix of this region and the neighbours across the nearest borders
+        float height = getRegion(seed, rx, rz, regionX, regionZ, resource).getHeight(x, z) * (1 - wx) * (1 - wz);
+        if (nx != 0) {
+            height += getRegion(seed, rx + nx, rz, regionX, regionZ, resource).getHeight(x, z) * wx * (1 - wz);
+        }
+        if (nz != 0) {
+            height += getRegion(seed, rx, rz + nz, regionX, regionZ, resource).getHeight(x, z) * (1 - wx) * wz;
+        }
+        if (nx != 0 && nz != 0) {
+            height += getRegion(seed, rx + nx, rz + nz, regionX, regionZ, resource).getHeight(x, z) * wx * wz;
+        }
+        return height;
+    }
+
+    protected ErosionRegion getRegion(int seed, int rx, int rz, int regionX, int regionZ, NoiseResource resource) {
+        // Regions touched by one chunk are within one step of its own region
+        int index = (rz - regionZ + 1) * 3 + (rx - regionX + 1);
+
+        var region = resource.regions[index];
+        if (region == null) {
+            region = regions.computeIfAbsent(seed, PosUtil.pack(rx, rz), ErodedNoiseGenerator::createRegion);
+            region.generate(generator, regionErosion, budget, resource.erosionResource, resource.random);
+            resource.regions[index] = region;
+        }
+        return region;
+    }
+
     protected void collectNeighbours(int seed, int chunkX, int chunkZ, NoiseResource resource) {
         for (int dz = tileSize.chunkMin; dz < tileSize.chunkMax; dz++) {
             for (int dx = tileSize.chunkMin; dx < tileSize.chunkMax; dx++) {
@@ -134,6 +274,11 @@ public class ErodedNoiseGenerator implements INoiseGenerator {
     }
 
     protected void generateCenterChunk(int seed, int chunkX, int chunkZ, NoiseResource resource) {
+        if (generator.isTiled()) {
+            generateCenterChunkTiled(seed, chunkX, chunkZ, resource);
+            return;
+        }
+
         var blender = generator.getBlenderResource();
 
         int startX = chunkX << 4;
@@ -157,13 +302,33 @@ public class ErodedNoiseGenerator implements INoiseGenerator {
         }
     }
 
+    protected void generateCenterChunkTiled(int seed, int chunkX, int chunkZ, NoiseResource resource) {
+        var tile = generator.getTile(seed, chunkX, chunkZ);
+
+        int startX = chunkX << 4;
+        int startZ = chunkZ << 4;
+
+        int min = resource.chunk.min();
+        int max = resource.chunk.max();
+
+        for (int dz = min; dz < max; dz++) {
+            for (int dx = min; dx < max; dx++) {
+                var sample = resource.chunkSample.get(dx, dz);
+                tile.getTerrainSample(startX + dx, startZ + dz, sample);
+
+                int tileIndex = tileSize.indexOfRel(dx, dz);
+                resource.heightmap[tileIndex] = sample.heightNoise;
+            }
+        }
+    }
+
     protected void awaitNeighbours(NoiseResource resource) {
         for (int cz = tileSize.chunkMin; cz < tileSize.chunkMax; cz++) {
             for (int cx = tileSize.chunkMin; cx < tileSize.chunkMax; cx++) {
                 if (cx == 0 && cz == 0) continue;
 
                 int chunkIndex = tileSize.chunkIndexOfRel(cx, cz);
-                float[] chunk = resource.chunkCache[chunkIndex].join();
+                float[] chunk = ThreadPool.join(resource.chunkCache[chunkIndex]);
 
                 int relStartX = cx << 4;
                 int relStartZ = cz << 4;
@@ -178,7 +343,15 @@ public class ErodedNoiseGenerator implements INoiseGenerator {
     }
 
     protected void generateErosion(int seed, int chunkX, int chunkZ, NoiseResource resource) {
-        erosion.apply(seed, chunkX, chunkZ, tileSize, resource.erosionResource, resource.random, resource.heightmap);
+        int[] droplets = null;
+        if (budget != null) {
+            droplets = budget.compute(resource.heightmap, tileSize.chunkLength, resource.budget);
+            budget.record(droplets, tileSize.chunkLength, -tileSize.chunkMin);
+        }
+
+        int minChunkX = chunkX + tileSize.chunkMin;
+        int minChunkZ = chunkZ + tileSize.chunkMin;
+        erosion.apply(seed, minChunkX, minChunkZ, tileSize.chunkLength, droplets, resource.erosionResource, resource.random, resource.heightmap);
     }
 
     protected void generateRivers(int seed, int chunkX, int chunkZ, NoiseResource resource) {
@@ -216,14 +389,23 @@ public class ErodedNoiseGenerator implements INoiseGenerator {
     }
 
     protected CompletableFuture<float[]> generateChunk(final int seed, final long key) {
-        return CompletableFuture.supplyAsync(() -> {
-            int chunkX = PosUtil.unpackLeft(key);
-            int chunkZ = PosUtil.unpackRight(key);
+        final int chunkX = PosUtil.unpackLeft(key);
+        final int chunkZ = PosUtil.unpackRight(key);
 
+        return ThreadPool.EXECUTOR.supply(() -> {
             int startX = chunkX << 4;
             int startZ = chunkZ << 4;
 
             float[] height = pool.take();
+
+            if (generator.isTiled()) {
+                var tile = generator.getTile(seed, chunkX, chunkZ);
+                for (int i = 0; i < height.length; i++) {
+                    height[i] = tile.getTerrainHeight(startX + (i & 15), startZ + (i >> 4));
+                }
+                return height;
+            }
+
             var sample = localSample.get();
             var blender = generator.getBlenderResource();
 
@@ -237,6 +419,43 @@ public class ErodedNoiseGenerator implements INoiseGenerator {
             }
 
             return height;
-        }, ThreadPool.EXECUTOR);
+        }, chunkX, chunkZ, WorkerPool.NORMAL);
+    }
+
+    protected static ErosionRegion createRegion(int seed, long key) {
+        return new ErosionRegion(seed, PosUtil.unpackLeft(key), PosUtil.unpackRight(key), REGION_SIZE, REGION_APRON);
+    }
+
+    protected static int getBlendSide(float pos, int length) {
+        if (pos < REGION_BLEND) return -1;
+        if (length - pos < REGION_BLEND) return 1;
+        return 0;
+    }
+
+    protected static float getBlendWeight(float pos, int side, int length) {
+        if (side == 0) return 0F;
+
+        float distance = side < 0 ? pos : length - pos;
+        return 0.5F * (1F - distance / REGION_BLEND);
+    }
+
+    protected static long getErosionHash(NoiseTileSize tileSize, FilterSettings.Erosion settings, ErosionBudget budget) {
+        long hash = tileSize.chunkLength;
+        hash = 31 * hash + settings.dropletsPerChunk;
+        hash = 31 * hash + settings.dropletLifetime;
+        hash = 31 * hash + Float.floatToIntBits(settings.erosionRate);
+        hash = 31 * hash + Float.floatToIntBits(settings.depositeRate);
+        hash = 31 * hash + Float.floatToIntBits(settings.dropletVelocity);
+        hash = 31 * hash + Float.floatToIntBits(settings.dropletVolume);
+        if (REGION_SIZE > 1) {
+            hash = 31 * hash + REGION_SIZE;
+        }
+        if (ErosionFilter.BATCH_SIZE > 1) {
+            hash = 31 * hash + ErosionFilter.BATCH_SIZE;
+        }
+        if (budget != null) {
+            hash = 31 * hash + budget.getConfigHash();
+        }
+        return hash;
     }
 }
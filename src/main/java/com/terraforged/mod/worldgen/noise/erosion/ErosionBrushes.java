@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.terraforged.mod.worldgen.noise.erosion;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Erosion brushes for a square map, stored as flat arrays of index offsets and
+ * weights. Every cell further than the brush radius from an edge shares one
+ * full brush, so only cells within the radius of an edge need a clipped brush
+ * of their own. Brushes are identified by a class along each axis: the distance
+ * to the near edge, or the full class for cells away from both edges.
+ */
+public class ErosionBrushes {
+    private static final Map<Long, ErosionBrushes> CACHE = new ConcurrentHashMap<>();
+
+    protected final int size;
+    protected final int classes;
+    protected final byte[] axisClass;
+    protected final int[] start;
+    protected final int[] offsets;
+    protected final float[] weights;
+
+    protected ErosionBrushes(int size, int radius) {
+        this.size = size;
+        this.classes = radius * 2 - 1;
+        this.axisClass = new byte[size];
+        this.start = new int[classes * classes + 1];
+
+        // A representative position for each class along an axis
+        int[] positions = new int[classes];
+        for (int c = 0; c < classes; c++) {
+            positions[c] = c < radius ? c : size - classes + c;
+        }
+
+        for (int p = 0; p < size; p++) {
+            if (p < radius - 1) {
+                axisClass[p] = (byte) p;
+            } else if (p > size - radius) {
+                axisClass[p] = (byte) (p - size + classes);
+            } else {
+                axisClass[p] = (byte) (radius - 1);
+            }
+        }
+
+        int[] offsets = new int[classes * classes * radius * radius * 4];
+        float[] weights = new float[offsets.length];
+        int count = 0;
+
+        for (int cy = 0; cy < classes; cy++) {
+            for (int cx = 0; cx < classes; cx++) {
+                start[cy * classes + cx] = count;
+                count = initBrush(positions[cx], positions[cy], size, radius, offsets, weights, count);
+            }
+        }
+        start[start.length - 1] = count;
+
+        this.offsets = Arrays.copyOf(offsets, count);
+        this.weights = Arrays.copyOf(weights, count);
+    }
+
+    public int getBrush(int x, int y) {
+        return axisClass[y] * classes + axisClass[x];
+    }
+
+    public int getStart(int brush) {
+        return start[brush];
+    }
+
+    public int getEnd(int brush) {
+        return start[brush + 1];
+    }
+
+    public int getOffset(int index) {
+        return offsets[index];
+    }
+
+    public float getWeight(int index) {
+        return weights[index];
+    }
+
+    public static ErosionBrushes get(int size, int radius) {
+        long key = ((long) size << 32) | radius;
+        return CACHE.computeIfAbsent(key, k -> new ErosionBrushes(size, radius));
+    }
+
+    private static int initBrush(int centreX, int centreY, int size, int radius, int[] offsets, float[] weights, int start) {
+        float weightSum = 0;
+        int addIndex = start;
+
+        for (int y = -radius; y <= radius; y++) {
+            for (int x = -radius; x <= radius; x++) {
+                float sqrDst = x * x + y * y;
+                if (sqrDst < radius * radius) {
+                    int coordX = centreX + x;
+                    int coordY = centreY + y;
+
+                    if (coordX >= 0 && coordX < size && coordY >= 0 && coordY < size) {
+                        float weight = 1 - (float) Math.sqrt(sqrDst) / radius;
+                        weightSum += weight;
+                        weights[addIndex] = weight;
+                        offsets[addIndex] = y * size + x;
+                        addIndex++;
+                    }
+                }
+            }
+        }
+
+        for (int i = start; i < addIndex; i++) {
+            weights[i] /= weightSum;
+        }
+
+        return addIndex;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.terraforged.mod.worldgen.noise.erosion;
+
+import com.terraforged.mod.worldgen.noise.NoiseLevels;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Scales the number of droplets dropped into each chunk by the relief of its
+ * pre-erosion heights. Flat ground and deep ocean floor, where erosion has no
+ * visible effect, are skipped entirely. A chunk's budget depends only on its
+ * own heights so every map that contains it drops the same droplets into it.
+ */
+public class ErosionBudget {
+    public static final boolean ADAPTIVE = Boolean.getBoolean("terraforged.erosion.adaptive");
+    // Relief in blocks below which a chunk is skipped and above which it gets the full budget
+    protected static final int MIN_RELIEF = Integer.getInteger("terraforged.erosion.min_relief", 2);
+    protected static final int FULL_RELIEF = Integer.getInteger("terraforged.erosion.full_relief", 32);
+
+    protected final int iterations;
+    protected final float minRelief;
+    protected final float reliefRange;
+    protected final float fullGradient;
+    protected final float seaFloor;
+
+    protected final LongAdder chunks = new LongAdder();
+    protected final LongAdder skipped = new LongAdder();
+    protected final LongAdder droplets = new LongAdder();
+
+    public ErosionBudget(int iterations, NoiseLevels levels) {
+        this.iterations = iterations;
+        this.minRelief = MIN_RELIEF * levels.unit;
+        this.reliefRange = Math.max(1, FULL_RELIEF - MIN_RELIEF) * levels.unit;
+        this.fullGradient = levels.unit;
+        this.seaFloor = levels.depthMin;
+    }
+
+    /**
+     * Fills the droplet budget for each chunk of a chunkLength x chunkLength map.
+     */
+    public int[] compute(float[] map, int chunkLength, int[] budget) {
+        int mapSize = chunkLength << 4;
+
+        for (int cz = 0, i = 0; cz < chunkLength; cz++) {
+            for (int cx = 0; cx < chunkLength; cx++, i++) {
+                budget[i] = getBudget(map, mapSize, cx << 4, cz << 4);
+            }
+        }
+
+        return budget;
+    }
+
+    protected int getBudget(float[] map, int mapSize, int startX, int startZ) {
+        float min = Float.MAX_VALUE;
+        float max = -Float.MAX_VALUE;
+        float gradient = 0F;
+
+        for (int dz = 0; dz < 16; dz++) {
+            int row = (startZ + dz) * mapSize + startX;
+
+            for (int dx = 0; dx < 16; dx++) {
+                float height = map[row + dx];
+                min = Math.min(min, height);
+                max = Math.max(max, height);
+
+                if (dx > 0) gradient += Math.abs(height - map[row + dx - 1]);
+                if (dz > 0) gradient += Math.abs(height - map[row + dx - mapSize]);
+            }
+        }
+
+        float relief = max - min;
+        if (relief < minRelief || max < seaFloor) return 0;
+
+        // Mean step between neighbouring columns, a full block per column counts as rough ground
+        float roughness = gradient / (2 * 16 * 15) / fullGradient;
+        float fraction = Math.max((relief - minRelief) / reliefRange, roughness);
+        if (fraction >= 1F) return iterations;
+
+        return (int) Math.ceil(fraction * iterations);
+    }
+
+    /**
+     * Records the budgets of the chunks at least border chunks in from the edge of the map for the
+     * debug stats. Callers pass the border that excludes neighbour/apron chunks so that each
+     * generated chunk is only counted once, rather than once per map that contains it.
+     */
+    public void record(int[] budget, int chunkLength, int border) {
+        for (int cz = border; cz < chunkLength - border; cz++) {
+            for (int cx = border; cx < chunkLength - border; cx++) {
+                record(budget[cz * chunkLength + cx]);
+            }
+        }
+    }
+
+    protected void record(int budget) {
+        chunks.increment();
+        droplets.add(budget);
+        if (budget == 0) {
+            skipped.increment();
+        }
+    }
+
+    public long getConfigHash() {
+        long hash = MIN_RELIEF;
+        hash = 31 * hash + FULL_RELIEF;
+        return hash;
+    }
+
+    public void addDebugInfo(List<String> lines) {
+        long chunks = this.chunks.sum();
+        long droplets = this.droplets.sum();
+        long skipped = this.skipped.sum();
+
+        double spent = chunks == 0 ? 0.0 : droplets / (double) (chunks * iterations);
+        double skipRate = chunks == 0 ? 0.0 : skipped / (double) chunks;
+
+        lines.add(String.format("Droplets: %.1f / %s per chunk (%.1f%%)", droplets / (double) Math.max(1, chunks), iterations, spent * 100));
+        lines.add(String.format("Skipped: %s / %s chunks (%.1f%%)", skipped, chunks, skipRate * 100));
+    }
+}
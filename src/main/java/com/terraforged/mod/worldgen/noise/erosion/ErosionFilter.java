@@ -30,6 +30,9 @@ import com.terraforged.mod.util.MathUtil;
 import com.terraforged.noise.util.NoiseUtil;
 
 public class ErosionFilter {
+    // Droplets simulated in lockstep, batching is off below 2
+    public static final int BATCH_SIZE = Integer.getInteger("terraforged.erosion.batch_size", 0);
+
     private static final float HEIGHT_FALL_OFF = 0.4F;
     private static final int HEIGHT = 0;
     private static final int GRAD_X = 1;
@@ -47,8 +50,7 @@ public class ErosionFilter {
     private final float initialSpeed;
     private final float initialWaterVolume;
     private final int maxDropletLifetime;
-    private final int[][] erosionBrushIndices;
-    private final float[][] erosionBrushWeights;
+    private final ErosionBrushes brushes;
 
     private final int iterations;
 
@@ -59,23 +61,36 @@ public class ErosionFilter {
         this.initialSpeed = settings.dropletVelocity;
         this.initialWaterVolume = settings.dropletVolume;
         this.maxDropletLifetime = settings.dropletLifetime;
-        this.erosionBrushIndices = new int[mapSize * mapSize][];
-        this.erosionBrushWeights = new float[mapSize * mapSize][];
-        initBrushes(mapSize, erosionRadius);
+        this.brushes = ErosionBrushes.get(mapSize, erosionRadius);
     }
 
     public void apply(int seed, int chunkX, int chunkZ, NoiseTileSize size, Resource resource, FastRandom random, float[] map) {
-        int maxIndex = size.regionLength - 2;
-        for (int i = 0; i < iterations; i++) {
+        apply(seed, chunkX + size.chunkMin, chunkZ + size.chunkMin, size.chunkLength, null, resource, random, map);
+    }
+
+    /**
+     * Erodes a map of chunkLength x chunkLength chunks starting at the given min chunk. Droplets are
+     * seeded per absolute chunk position so overlapping maps drop them in the same places. If a
+     * budget is given, each chunk only receives the first budget[chunkIndex] of its droplets.
+     */
+    public void apply(int seed, int minChunkX, int minChunkZ, int chunkLength, int[] budget, Resource resource, FastRandom random, float[] map) {
+        int mapSize = chunkLength << 4;
+        int maxIndex = mapSize - 2;
+        int maxIterations = budget == null ? iterations : getMaxBudget(budget, chunkLength * chunkLength);
+        var batch = BATCH_SIZE > 1 ? resource.getBatch() : null;
+
+        for (int i = 0; i < maxIterations; i++) {
             long iterationSeed = NoiseUtil.seed(seed, i);
 
-            for (int dz = size.chunkMin; dz < size.chunkMax; dz++) {
-                int startZ = (dz - size.chunkMin) << 4;
+            for (int cz = 0; cz < chunkLength; cz++) {
+                int startZ = cz << 4;
 
-                for (int dx = size.chunkMin; dx < size.chunkMax; dx++) {
-                    int startX = (dx - size.chunkMin) << 4;
+                for (int cx = 0; cx < chunkLength; cx++) {
+                    if (budget != null && i >= budget[cz * chunkLength + cx]) continue;
 
-                    long chunkSeed = NoiseUtil.seed(chunkX + dx, chunkZ + dz);
+                    int startX = cx << 4;
+
+                    long chunkSeed = NoiseUtil.seed(minChunkX + cx, minChunkZ + cz);
                     random.seed(chunkSeed, iterationSeed);
 
                     int x = startX + random.nextInt(NoiseTileSize.CHUNK_SIZE);
@@ -84,10 +99,148 @@ public class ErosionFilter {
                     x = MathUtil.clamp(x, 1, maxIndex);
                     z = MathUtil.clamp(z, 1, maxIndex);
 
-                    applyDrop(x, z, map, size.regionLength, resource);
+                    if (batch == null) {
+                        applyDrop(x, z, map, mapSize, resource);
+                        continue;
+                    }
+
+                    batch.add(x, z, initialSpeed, initialWaterVolume);
+                    if (batch.isFull()) {
+                        applyBatch(batch, map, mapSize);
+                    }
+                }
+            }
+        }
+
+        if (batch != null && !batch.isEmpty()) {
+            applyBatch(batch, map, mapSize);
+        }
+    }
+
+    private int getMaxBudget(int[] budget, int length) {
+        int max = 0;
+        for (int i = 0; i < length; i++) {
+            max = Math.max(max, budget[i]);
+        }
+        return Math.min(max, iterations);
+    }
+
+    /**
+     * Advances every droplet in the batch one lifetime step at a time. Each step reads the map for the
+     * whole batch before writing any erosion or deposition back, in droplet order, so results differ
+     * from {@link #applyDrop} but are deterministic for a given batch size.
+     */
+    private void applyBatch(DropletBatch batch, float[] map, int mapSize) {
+        float limit = mapSize - 1;
+
+        for (int lifetime = 0; lifetime < maxDropletLifetime && !batch.isEmpty(); lifetime++) {
+            int size = batch.size;
+            var posX = batch.posX;
+            var posY = batch.posY;
+            var dirX = batch.dirX;
+            var dirY = batch.dirY;
+
+            // Height and gradient at the current positions
+            for (int i = 0; i < size; i++) {
+                int nodeX = (int) posX[i];
+                int nodeY = (int) posY[i];
+                int index = nodeY * mapSize + nodeX;
+                float x = posX[i] - nodeX;
+                float y = posY[i] - nodeY;
+
+                float heightNW = map[index];
+                float heightNE = map[index + 1];
+                float heightSW = map[index + mapSize];
+                float heightSE = map[index + mapSize + 1];
+
+                batch.node[i] = index;
+                batch.offsetX[i] = x;
+                batch.offsetY[i] = y;
+                batch.height[i] = heightNW * (1 - x) * (1 - y) + heightNE * x * (1 - y) + heightSW * (1 - x) * y + heightSE * x * y;
+                batch.gradX[i] = (heightNE - heightNW) * (1 - y) + (heightSE - heightSW) * y;
+                batch.gradY[i] = (heightSW - heightNW) * (1 - x) + (heightSE - heightNE) * x;
+            }
+
+            // Steer and move. A zero-length direction normalizes to NaN which fails the bounds check
+            for (int i = 0; i < size; i++) {
+                float dx = dirX[i] * inertia - batch.gradX[i] * (1 - inertia);
+                float dy = dirY[i] * inertia - batch.gradY[i] * (1 - inertia);
+                float len = NoiseUtil.sqrt(dx * dx + dy * dy);
+                dx /= len;
+                dy /= len;
+
+                float px = posX[i] + dx;
+                float py = posY[i] + dy;
+                dirX[i] = dx;
+                dirY[i] = dy;
+                posX[i] = px;
+                posY[i] = py;
+                batch.alive[i] = px >= 0 && px < limit && py >= 0 && py < limit;
+            }
+
+            // Height change at the new positions, read before this step writes anything
+            for (int i = 0; i < size; i++) {
+                if (!batch.alive[i]) continue;
+
+                int nodeX = (int) posX[i];
+                int nodeY = (int) posY[i];
+                int index = nodeY * mapSize + nodeX;
+                float x = posX[i] - nodeX;
+                float y = posY[i] - nodeY;
+
+                float newHeight = map[index] * (1 - x) * (1 - y) + map[index + 1] * x * (1 - y)
+                        + map[index + mapSize] * (1 - x) * y + map[index + mapSize + 1] * x * y;
+
+                batch.delta[i] = (newHeight - batch.height[i]) * getFalloff(map[batch.node[i]]);
+            }
+
+            // Erode or deposit in droplet order
+            for (int i = 0; i < size; i++) {
+                if (!batch.alive[i]) continue;
+
+                float deltaHeight = batch.delta[i];
+                float speed = batch.speed[i];
+                float water = batch.water[i];
+                float sediment = batch.sediment[i];
+                int dropletIndex = batch.node[i];
+
+                float sedimentCapacity = Math.max(-deltaHeight * speed * water * sedimentCapacityFactor, minSedimentCapacity);
+
+                if (sediment > sedimentCapacity || deltaHeight > 0) {
+                    float cellOffsetX = batch.offsetX[i];
+                    float cellOffsetY = batch.offsetY[i];
+                    float amountToDeposit = (deltaHeight > 0) ? Math.min(deltaHeight, sediment) : (sediment - sedimentCapacity) * depositSpeed;
+                    sediment -= amountToDeposit;
+
+                    map[dropletIndex] += amountToDeposit * (1 - cellOffsetX) * (1 - cellOffsetY);
+                    map[dropletIndex + 1] += amountToDeposit * cellOffsetX * (1 - cellOffsetY);
+                    map[dropletIndex + mapSize] += amountToDeposit * (1 - cellOffsetX) * cellOffsetY;
+                    map[dropletIndex + mapSize + 1] += amountToDeposit * cellOffsetX * cellOffsetY;
+                } else {
+                    float amountToErode = Math.min((sedimentCapacity - sediment) * erodeSpeed, -deltaHeight);
+
+                    int brush = brushes.getBrush(dropletIndex % mapSize, dropletIndex / mapSize);
+                    int brushEnd = brushes.getEnd(brush);
+                    for (int brushPointIndex = brushes.getStart(brush); brushPointIndex < brushEnd; brushPointIndex++) {
+                        int nodeIndex = dropletIndex + brushes.getOffset(brushPointIndex);
+                        float weighedErodeAmount = amountToErode * brushes.getWeight(brushPointIndex);
+                        float deltaSediment = Math.min(map[nodeIndex], weighedErodeAmount);
+                        map[nodeIndex] -= deltaSediment;
+                        sediment += deltaSediment;
+                    }
                 }
+
+                float speed2 = speed * speed + deltaHeight * gravity;
+                batch.sediment[i] = sediment;
+                batch.speed[i] = NoiseUtil.sqrt(speed2);
+                batch.water[i] = water * (1 - evaporateSpeed);
+                batch.alive[i] = speed2 > 0;
             }
+
+            batch.compact();
         }
+
+        batch.clear();
     }
 
     private void applyDrop(float posX, float posY, float[] map, int mapSize, Resource resource) {
@@ -156,9 +309,11 @@ public class ErosionFilter {
                 float amountToErode = Math.min((sedimentCapacity - sediment) * erodeSpeed, -deltaHeight);
 
                 // Use erosion brush to erode from all nodes inside the droplet's erosion radius
-                for (int brushPointIndex = 0; brushPointIndex < erosionBrushIndices[dropletIndex].length; brushPointIndex++) {
-                    int nodeIndex = erosionBrushIndices[dropletIndex][brushPointIndex];
-                    float weighedErodeAmount = amountToErode * erosionBrushWeights[dropletIndex][brushPointIndex];
+                int brush = brushes.getBrush(nodeX, nodeY);
+                int brushEnd = brushes.getEnd(brush);
+                for (int brushPointIndex = brushes.getStart(brush); brushPointIndex < brushEnd; brushPointIndex++) {
+                    int nodeIndex = dropletIndex + brushes.getOffset(brushPointIndex);
+                    float weighedErodeAmount = amountToErode * brushes.getWeight(brushPointIndex);
                     float deltaSediment = Math.min(map[nodeIndex], weighedErodeAmount);
                     map[nodeIndex] -= deltaSediment;
                     sediment += deltaSediment;
@@ -174,51 +329,6 @@ public class ErosionFilter {
         }
     }
 
-    private void initBrushes(int size, int radius) {
-        int[] xOffsets = new int[radius * radius * 4];
-        int[] yOffsets = new int[radius * radius * 4];
-        float[] weights = new float[radius * radius * 4];
-        float weightSum = 0;
-        int addIndex = 0;
-
-        for (int i = 0; i < erosionBrushIndices.length; i++) {
-            int centreX = i % size;
-            int centreY = i / size;
-
-            if (centreY <= radius || centreY >= size - radius || centreX <= radius + 1 || centreX >= size - radius) {
-                weightSum = 0;
-                addIndex = 0;
-                for (int y = -radius; y <= radius; y++) {
-                    for (int x = -radius; x <= radius; x++) {
-                        float sqrDst = x * x + y * y;
-                        if (sqrDst < radius * radius) {
-                            int coordX = centreX + x;
-                            int coordY = centreY + y;
-
-                            if (coordX >= 0 && coordX < size && coordY >= 0 && coordY < size) {
-                                float weight = 1 - (float) Math.sqrt(sqrDst) / radius;
-                                weightSum += weight;
-                                weights[addIndex] = weight;
-                                xOffsets[addIndex] = x;
-                                yOffsets[addIndex] = y;
-                                addIndex++;
-                            }
-                        }
-                    }
-                }
-            }
-
-            int numEntries = addIndex;
-            erosionBrushIndices[i] = new int[numEntries];
-            erosionBrushWeights[i] = new float[numEntries];
-
-            for (int j = 0; j < numEntries; j++) {
-                erosionBrushIndices[i][j] = (yOffsets[j] + centreY) * size + xOffsets[j] + centreX;
-                erosionBrushWeights[i][j] = weights[j] / weightSum;
-            }
-        }
-    }
-
     private float[] grad(float[] nodes, int mapSize, float posX, float posY, float[] resource) {
         int coordX = (int) posX;
         int coordY = (int) posY;
@@ -250,5 +360,13 @@ public class ErosionFilter {
     public static class Resource {
         public final float[] grad1 = new float[3];
         public final float[] grad2 = new float[3];
+        protected DropletBatch batch;
+
+        protected DropletBatch getBatch() {
+            if (batch == null) {
+                batch = new DropletBatch(BATCH_SIZE);
+            }
+            return batch;
+        }
     }
 }
@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.terraforged.mod.worldgen.noise.erosion;
+
+import com.terraforged.engine.util.FastRandom;
+import com.terraforged.mod.worldgen.noise.NoiseGenerator;
+import com.terraforged.mod.worldgen.noise.NoiseSample;
+
+/**
+ * A square of chunks that is eroded once as a single heightmap and then sliced
+ * for every chunk inside it. The map extends an apron of chunks past each edge
+ * so that neighbouring regions overlap and their seams can be blended.
+ */
+public class ErosionRegion {
+    protected final int seed;
+    protected final int minChunkX;
+    protected final int minChunkZ;
+    protected final int chunkLength;
+    protected final int apron;
+    protected final int startX;
+    protected final int startZ;
+    protected final int length;
+    protected final float[] heightmap;
+
+    protected volatile boolean done;
+
+    public ErosionRegion(int seed, int regionX, int regionZ, int regionSize, int apron) {
+        this.seed = seed;
+        this.minChunkX = regionX * regionSize - apron;
+        this.minChunkZ = regionZ * regionSize - apron;
+        this.chunkLength = regionSize + apron * 2;
+        this.apron = apron;
+        this.startX = minChunkX << 4;
+        this.startZ = minChunkZ << 4;
+        this.length = chunkLength << 4;
+        this.heightmap = new float[length * length];
+    }
+
+    public int getSeed() {
+        return seed;
+    }
+
+    public float getHeight(int x, int z) {
+        return heightmap[(z - startZ) * length + (x - startX)];
+    }
+
+    public ErosionRegion generate(NoiseGenerator generator, ErosionFilter filter, ErosionBudget budget, ErosionFilter.Resource resource, FastRandom random) {
+        if (done) return this;
+
+        synchronized (this) {
+            if (done) return this;
+
+            if (generator.isTiled()) {
+                sampleTiled(generator);
+            } else {
+                sample(generator);
+            }
+
+            int[] droplets = null;
+            if (budget != null) {
+                droplets = budget.compute(heightmap, chunkLength, new int[chunkLength * chunkLength]);
+                budget.record(droplets, chunkLength, apron);
+            }
+            filter.apply(seed, minChunkX, minChunkZ, chunkLength, droplets, resource, random, heightmap);
+
+            done = true;
+        }
+
+        return this;
+    }
+
+    protected void sample(NoiseGenerator generator) {
+        var sample = new NoiseSample();
+        var blender = generator.getBlenderResource();
+
+        for (int dz = 0, i = 0; dz < length; dz++) {
+            float nz = generator.getNoiseCoord(startZ + dz);
+
+            for (int dx = 0; dx < length; dx++, i++) {
+                float nx = generator.getNoiseCoord(startX + dx);
+                heightmap[i] = generator.sampleTerrain(seed, nx, nz, sample.reset(), blender).heightNoise;
+            }
+        }
+    }
+
+    protected void sampleTiled(NoiseGenerator generator) {
+        for (int cz = 0; cz < chunkLength; cz++) {
+            for (int cx = 0; cx < chunkLength; cx++) {
+                var tile = generator.getTile(seed, minChunkX + cx, minChunkZ + cz);
+
+                int relX = cx << 4;
+                int relZ = cz << 4;
+                for (int dz = 0; dz < 16; dz++) {
+                    int index = (relZ + dz) * length + relX;
+
+                    for (int dx = 0; dx < 16; dx++) {
+                        heightmap[index + dx] = tile.getTerrainHeight(startX + relX + dx, startZ + relZ + dz);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.terraforged.mod.worldgen.noise.erosion;
+
+import com.terraforged.mod.TerraForged;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Persists post-erosion chunk heightmaps to memory-mapped region files so that regenerating explored
+ * terrain (eg pregen retries or another world with the same seed) can skip erosion entirely.
+ * <p>
+ * Each record holds the eroded heights of a chunk plus its one column border, stored as 16-bit fixed
+ * point values relative to the record's own min and max height. Stores are keyed by the eroded
+ * generator's config hash, which covers the erosion settings and the terrain config, and the seed.
+ * At most {@link #MAX_OPEN_REGIONS} region files are kept mapped; the least recently used are closed
+ * when that is exceeded.
+ */
+public class ErosionStore {
+    public static final String STORE_DIR = System.getProperty("terraforged.erosion_store");
+
+    protected static final int MAGIC = 0x54464552;
+    protected static final int VERSION = 1;
+    protected static final int PRESENT = 1;
+    protected static final int MAX_OPEN_REGIONS = Integer.getInteger("terraforged.erosion_store.max_regions", 64);
+
+    protected static final int REGION_SIZE = 32;
+    protected static final int REGION_MASK = REGION_SIZE - 1;
+    protected static final int REGION_SHIFT = 5;
+    protected static final int REGION_CHUNKS = REGION_SIZE * REGION_SIZE;
+
+    protected static final int BORDER = 1;
+    protected static final int LENGTH = 16 + BORDER * 2;
+    protected static final int COLUMNS = LENGTH * LENGTH;
+    protected static final int MAX_VALUE = 0xFFFF;
+
+    // Record layout
+    protected static final int MIN_OFFSET = 0;
+    protected static final int RANGE_OFFSET = MIN_OFFSET + 4;
+    protected static final int HEIGHT_OFFSET = RANGE_OFFSET + 4;
+    protected static final int RECORD_SIZE = HEIGHT_OFFSET + COLUMNS * 2;
+
+    // File layout
+    protected static final int HEADER_SIZE = 16;
+    protected static final int STATE_OFFSET = HEADER_SIZE;
+    protected static final int DATA_OFFSET = STATE_OFFSET + REGION_CHUNKS * 4;
+    protected static final int FILE_SIZE = DATA_OFFSET + REGION_CHUNKS * RECORD_SIZE;
+
+    private static final VarHandle STATE = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    protected final Path dir;
+    protected final long configHash;
+    protected final Map<RegionKey, Region> regions = new ConcurrentHashMap<>();
+    protected final Object evictLock = new Object();
+
+    protected final LongAdder reads = new LongAdder();
+    protected final LongAdder writes = new LongAdder();
+
+    public ErosionStore(Path dir, long configHash) {
+        this.dir = dir;
+        this.configHash = configHash;
+    }
+
+    public boolean contains(int seed, int chunkX, int chunkZ) {
+        var region = getRegion(seed, chunkX, chunkZ);
+        if (region == null) return false;
+
+        int slot = getSlot(chunkX, chunkZ);
+        return (int) STATE.getAcquire(region.buffer, STATE_OFFSET + slot * 4) == PRESENT;
+    }
+
+    /**
+     * Reads the eroded heights of the chunk into the heightmap, returning false (and leaving the
+     * heightmap untouched) if the chunk is not stored. This re-checks the slot itself since the
+     * region may have been evicted and reopened since a call to {@link #contains}.
+     */
+    public boolean read(int seed, int chunkX, int chunkZ, NoiseTileSize tileSize, float[] heightmap) {
+        var region = getRegion(seed, chunkX, chunkZ);
+        if (region == null) return false;
+
+        int slot = getSlot(chunkX, chunkZ);
+        var buffer = region.buffer;
+
+        if ((int) STATE.getAcquire(buffer, STATE_OFFSET + slot * 4) != PRESENT) return false;
+
+        int offset = DATA_OFFSET + slot * RECORD_SIZE;
+        float min = buffer.getFloat(offset + MIN_OFFSET);
+        float range = buffer.getFloat(offset + RANGE_OFFSET);
+
+        for (int dz = -BORDER, i = 0; dz < 16 + BORDER; dz++) {
+            for (int dx = -BORDER; dx < 16 + BORDER; dx++, i++) {
+                int value = buffer.getShort(offset + HEIGHT_OFFSET + i * 2) & 0xFFFF;
+                heightmap[tileSize.indexOfRel(dx, dz)] = min + value * range;
+            }
+        }
+
+        reads.increment();
+
+        return true;
+    }
+
+    public void write(int seed, int chunkX, int chunkZ, NoiseTileSize tileSize, float[] heightmap) {
+        var region = getRegion(seed, chunkX, chunkZ);
+        if (region == null) return;
+
+        int slot = getSlot(chunkX, chunkZ);
+        int offset = DATA_OFFSET + slot * RECORD_SIZE;
+        var buffer = region.buffer;
+
+        float min = Float.MAX_VALUE;
+        float max = -Float.MAX_VALUE;
+        for (int dz = -BORDER; dz < 16 + BORDER; dz++) {
+            for (int dx = -BORDER; dx < 16 + BORDER; dx++) {
+                float height = heightmap[tileSize.indexOfRel(dx, dz)];
+                min = Math.min(min, height);
+                max = Math.max(max, height);
+            }
+        }
+
+        // Range is stored per step so that decoding is a single multiply-add
+        float range = (max - min) / MAX_VALUE;
+        float scale = range == 0 ? 0 : 1F / range;
+
+        for (int dz = -BORDER, i = 0; dz < 16 + BORDER; dz++) {
+            for (int dx = -BORDER; dx < 16 + BORDER; dx++, i++) {
+                float height = heightmap[tileSize.indexOfRel(dx, dz)];
+                int value = Math.round((height - min) * scale);
+                buffer.putShort(offset + HEIGHT_OFFSET + i * 2, (short) Math.max(0, Math.min(MAX_VALUE, value)));
+            }
+        }
+
+        buffer.putFloat(offset + MIN_OFFSET, min);
+        buffer.putFloat(offset + RANGE_OFFSET, range);
+
+        // Publish the slot only once the record is fully written
+        STATE.setRelease(buffer, STATE_OFFSET + slot * 4, PRESENT);
+
+        writes.increment();
+    }
+
+    public void close() {
+        for (var region : regions.values()) {
+            region.close();
+        }
+        regions.clear();
+    }
+
+    public void addDebugInfo(List<String> lines) {
+        lines.add(String.format("Erosion Store Reads: %s", reads.sum()));
+        lines.add(String.format("Erosion Store Writes: %s", writes.sum()));
+    }
+
+    @Nullable
+    protected Region getRegion(int seed, int chunkX, int chunkZ) {
+        var key = new RegionKey(seed, chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+
+        var region = regions.get(key);
+        if (region == null) {
+            region = regions.computeIfAbsent(key, this::openRegion);
+
+            if (regions.size() > MAX_OPEN_REGIONS) {
+                evictRegions();
+            }
+        }
+
+        if (region.buffer == null) return null;
+
+        region.lastAccess = System.nanoTime();
+        return region;
+    }
+
+    protected void evictRegions() {
+        synchronized (evictLock) {
+            while (regions.size() > MAX_OPEN_REGIONS) {
+                RegionKey oldestKey = null;
+                Region oldest = null;
+                for (var entry : regions.entrySet()) {
+                    if (oldest == null || entry.getValue().lastAccess < oldest.lastAccess) {
+                        oldestKey = entry.getKey();
+                        oldest = entry.getValue();
+                    }
+                }
+
+                if (oldest == null) return;
+
+                // The mapping outlives the channel so readers still holding the region are unaffected
+                if (regions.remove(oldestKey, oldest)) {
+                    oldest.close();
+                }
+            }
+        }
+    }
+
+    protected Region openRegion(RegionKey key) {
+        var file = dir.resolve(Integer.toHexString(key.seed())).resolve("e." + key.x() + "." + key.z() + ".bin");
+
+        try {
+            Files.createDirectories(file.getParent());
+
+            var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getLong(8) != configHash) {
+                // New or incompatible file so reset the header and clear all slots
+                for (int i = 0; i < REGION_CHUNKS; i++) {
+                    buffer.putInt(STATE_OFFSET + i * 4, 0);
+                }
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putLong(8, configHash);
+            }
+
+            return new Region(channel, buffer);
+        } catch (IOException e) {
+            TerraForged.LOG.warn("Failed to open erosion region {}", file, e);
+            return Region.NONE;
+        }
+    }
+
+    protected static int getSlot(int chunkX, int chunkZ) {
+        return ((chunkZ & REGION_MASK) << REGION_SHIFT) | (chunkX & REGION_MASK);
+    }
+
+    @Nullable
+    public static ErosionStore create(long configHash) {
+        if (STORE_DIR == null || STORE_DIR.isBlank()) return null;
+
+        var dir = Paths.get(STORE_DIR).resolve(Long.toHexString(configHash));
+
+        TerraForged.LOG.info("Using erosion store {}", dir.toAbsolutePath());
+
+        return new ErosionStore(dir, configHash);
+    }
+
+    protected record RegionKey(int seed, int x, int z) {}
+
+    protected static class Region {
+        protected static final Region NONE = new Region(null, null);
+
+        protected final FileChannel channel;
+        protected final MappedByteBuffer buffer;
+        protected volatile long lastAccess;
+
+        protected Region(FileChannel channel, MappedByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.lastAccess = System.nanoTime();
+        }
+
+        protected void close() {
+            if (channel == null) return;
+
+            try {
+                buffer.force();
+                channel.close();
+            } catch (IOException e) {
+                TerraForged.LOG.warn("Failed to close erosion region", e);
+            }
+        }
+    }
+}
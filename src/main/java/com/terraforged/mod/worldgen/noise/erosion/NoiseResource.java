@@ -42,6 +42,8 @@ public class NoiseResource {
     public final ObjectMap<NoiseSample> chunkSample;
 
     public final CompletableFuture<float[]>[] chunkCache;
+    public final int[] budget;
+    public final ErosionRegion[] regions = new ErosionRegion[9];
 
     public NoiseResource() {
         this(NoiseTileSize.DEFAULT);
@@ -54,6 +56,7 @@ public class NoiseResource {
         this.chunkSample.fill(NoiseSample::new);
         //noinspection unchecked
         this.chunkCache = new CompletableFuture[tileSize.chunkSize];
+        this.budget = new int[tileSize.chunkSize];
     }
 
     public NoiseSample getSample(int dx, int dz) {
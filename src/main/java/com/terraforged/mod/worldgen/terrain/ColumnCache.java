@@ -0,0 +1,136 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.terraforged.mod.worldgen.terrain;
+
+import com.terraforged.engine.util.pos.PosUtil;
+import com.terraforged.mod.util.storage.LongCache;
+import com.terraforged.mod.util.storage.LossyCache;
+import com.terraforged.noise.util.NoiseUtil;
+import net.minecraft.world.level.NoiseColumn;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Answers single-column height queries (getBaseHeight/getBaseColumn) for structure placement.
+ * Heights are bilinearly interpolated from a grid of exact noise samples taken at every 4th
+ * block, which are cached between queries. The result is a pure function of seed and position,
+ * so it does not depend on cache state or on whether the column's chunk has been generated.
+ */
+public class ColumnCache {
+    protected static final int CAPACITY = Integer.getInteger("terraforged.column_cache.capacity", 2048);
+    protected static final int SHIFT = 2;
+    protected static final int RESOLUTION = 1 << SHIFT;
+    protected static final int MASK = RESOLUTION - 1;
+
+    protected final TerrainLevels levels;
+    protected final TerrainCache terrainCache;
+    protected final LongCache<Sample> samples;
+    protected final int columnDepth;
+    protected final AtomicReferenceArray<BlockState[]> columns;
+
+    public ColumnCache(TerrainLevels levels, TerrainCache terrainCache) {
+        this.levels = levels;
+        this.terrainCache = terrainCache;
+        this.samples = LossyCache.concurrent(CAPACITY, Sample[]::new);
+        this.columnDepth = levels.maxY - levels.minY;
+        this.columns = new AtomicReferenceArray<>(columnDepth + 1);
+    }
+
+    public Column getColumn(int seed, int x, int z) {
+        int gx = x >> SHIFT;
+        int gz = z >> SHIFT;
+        float fx = (x & MASK) / (float) RESOLUTION;
+        float fz = (z & MASK) / (float) RESOLUTION;
+
+        var s00 = getSample(seed, gx, gz);
+        var s10 = getSample(seed, gx + 1, gz);
+        var s01 = getSample(seed, gx, gz + 1);
+        var s11 = getSample(seed, gx + 1, gz + 1);
+
+        float height = lerp(s00.height, s10.height, s01.height, s11.height, fx, fz);
+        float base = lerp(s00.base, s10.base, s01.base, s11.base, fx, fz);
+
+        return new Column(levels.getHeight(height), levels.getHeight(base));
+    }
+
+    /**
+     * Returns a view of the column backed by an array shared between all columns with the same
+     * water depth. Callers must treat the column as read-only.
+     */
+    public NoiseColumn getNoiseColumn(int seed, int x, int z) {
+        var column = getColumn(seed, x, z);
+        int height = column.height();
+        int waterDepth = NoiseUtil.clamp(column.surface() - height, 0, columnDepth);
+
+        // Shared array holds columnDepth blocks of stone followed by the water, offset so that
+        // the last stone block sits at the column's height (matching how chunks are filled)
+        return new NoiseColumn(height + 1 - columnDepth, getStates(waterDepth));
+    }
+
+    protected BlockState[] getStates(int waterDepth) {
+        var states = columns.get(waterDepth);
+        if (states != null) return states;
+
+        states = new BlockState[columnDepth + waterDepth];
+        Arrays.fill(states, 0, columnDepth, Blocks.STONE.defaultBlockState());
+        Arrays.fill(states, columnDepth, states.length, Blocks.WATER.defaultBlockState());
+
+        if (columns.compareAndSet(waterDepth, null, states)) return states;
+
+        return columns.get(waterDepth);
+    }
+
+    protected Sample getSample(int seed, int gx, int gz) {
+        long key = PosUtil.pack(gx, gz);
+        return samples.computeIfAbsent(seed, key, this::createSample);
+    }
+
+    protected Sample createSample(int seed, long key) {
+        int x = PosUtil.unpackLeft(key) << SHIFT;
+        int z = PosUtil.unpackRight(key) << SHIFT;
+        var noise = terrainCache.getSample(seed, x, z);
+        float height = levels.getScaledHeight(noise.heightNoise);
+        float base = levels.getScaledBaseLevel(noise.baseNoise);
+        return new Sample(height, base);
+    }
+
+    protected static float lerp(float v00, float v10, float v01, float v11, float fx, float fz) {
+        float upper = NoiseUtil.lerp(v00, v10, fx);
+        float lower = NoiseUtil.lerp(v01, v11, fx);
+        return NoiseUtil.lerp(upper, lower, fz);
+    }
+
+    public record Column(int height, int base) {
+        public int surface() {
+            return Math.max(height, base);
+        }
+    }
+
+    protected record Sample(float height, float base) {}
+}
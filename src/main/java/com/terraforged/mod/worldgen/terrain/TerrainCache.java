@@ -24,56 +24,62 @@
 
 package com.terraforged.mod.worldgen.terrain;
 
-import com.terraforged.mod.util.storage.ObjectPool;
+import com.terraforged.engine.util.pos.PosUtil;
+import com.terraforged.mod.Environment;
 import com.terraforged.mod.worldgen.noise.INoiseGenerator;
 import com.terraforged.mod.worldgen.noise.NoiseSample;
 import com.terraforged.mod.worldgen.util.ThreadPool;
+import com.terraforged.mod.worldgen.util.WorkerPool;
+import it.unimi.dsi.fastutil.HashCommon;
+import net.minecraft.util.Mth;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.chunk.ChunkAccess;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Map;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
-import java.util.function.Supplier;
 
 public class TerrainCache {
-    private final TerrainGenerator generator;
-    private final Map<CacheKey, CacheValue> cache = new ConcurrentHashMap<>(512);
+    protected static final int CAPACITY = Integer.getInteger("terraforged.terrain_cache.capacity", 4096);
+    protected static final long MAX_IDLE = TimeUnit.SECONDS.toNanos(Integer.getInteger("terraforged.terrain_cache.max_idle", 120));
+    protected static final int SWEEP_INTERVAL = 64;
 
-    private final ThreadLocal<CacheKey> localKey = ThreadLocal.withInitial(CacheKey::new);
-    private final ObjectPool<CacheKey> keyPool = new ObjectPool<>(512, CacheKey::new);
-    private final ObjectPool<CacheValue> valuePool = new ObjectPool<>(512, CacheValue::new);
+    private final TerrainGenerator generator;
+    private final Segment[] segments;
+    private final int segmentMask;
 
     public TerrainCache(TerrainLevels levels, INoiseGenerator noiseGenerator) {
-        this.generator = new TerrainGenerator(levels, noiseGenerator);
+        this(levels, noiseGenerator, CAPACITY);
     }
 
-    protected CacheKey allocPos(int seed, ChunkPos pos) {
-        return keyPool.take().set(seed, pos.x, pos.z);
-    }
+    public TerrainCache(TerrainLevels levels, INoiseGenerator noiseGenerator, int capacity) {
+        int concurrency = Mth.smallestEncompassingPowerOfTwo(Environment.CORES);
+        int segmentCapacity = Math.max(16, capacity / concurrency);
+
+        this.generator = new TerrainGenerator(levels, noiseGenerator);
+        this.segments = new Segment[concurrency];
+        this.segmentMask = concurrency - 1;
 
-    protected CacheKey lookupPos(int seed, ChunkPos pos) {
-        return localKey.get().set(seed, pos.x, pos.z);
+        for (int i = 0; i < concurrency; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
     }
 
     public void drop(int seed, ChunkPos pos) {
-        var key = lookupPos(seed, pos);
-        var value = cache.remove(key);
-
-        if (value == null || value.task == null) return;
-
-        generator.restore(value.task.join());
+        long key = PosUtil.pack(pos.x, pos.z);
+        long hash = hash(seed, key);
 
-        keyPool.restore(value.key);
+        var task = segment(hash).remove(seed, key, hash);
+        if (task == null) return;
 
-        valuePool.restore(value.reset());
+        generator.restore(task.join());
     }
 
     public void hint(int seed, ChunkPos pos) {
-        getAsync(seed, pos);
+        getAsync(seed, pos, WorkerPool.HINT);
     }
 
     public int getHeight(int seed, int x, int z) {
@@ -89,22 +95,28 @@ public class TerrainCache {
     }
 
     public TerrainData getNow(int seed, ChunkPos pos) {
-        return getAsync(seed, pos).join();
+        return ThreadPool.join(getAsync(seed, pos));
     }
 
     @Nullable
     public TerrainData getIfReady(int seed, ChunkPos pos) {
-        var key = allocPos(seed, pos);
-        var value = cache.get(key);
+        long key = PosUtil.pack(pos.x, pos.z);
+        long hash = hash(seed, key);
 
-        if (value == null || !value.task.isDone()) return null;
+        var task = segment(hash).peek(seed, key, hash);
+        if (task == null || !task.isDone()) return null;
 
-        return value.task.join();
+        return task.join();
     }
 
     public CompletableFuture<TerrainData> getAsync(int seed, ChunkPos pos) {
-        var key = allocPos(seed, pos);
-        return cache.computeIfAbsent(key, this::generate).task;
+        return getAsync(seed, pos, WorkerPool.NORMAL);
+    }
+
+    public CompletableFuture<TerrainData> getAsync(int seed, ChunkPos pos, int lane) {
+        long key = PosUtil.pack(pos.x, pos.z);
+        long hash = hash(seed, key);
+        return segment(hash).computeIfAbsent(seed, key, hash, lane, this);
     }
 
     public <T> CompletableFuture<ChunkAccess> combineAsync(Executor executor,
@@ -115,53 +127,250 @@ public class TerrainCache {
         return getAsync(seed, chunk.getPos()).thenApplyAsync(terrainData -> function.apply(chunk, terrainData), executor);
     }
 
-    protected CacheValue generate(CacheKey key) {
-        var value = valuePool.take();
-        value.key = key;
-        value.generator = generator;
-        value.task = CompletableFuture.supplyAsync(value, ThreadPool.EXECUTOR);
-        return value;
+    public boolean contains(int seed, int chunkX, int chunkZ) {
+        long key = PosUtil.pack(chunkX, chunkZ);
+        long hash = hash(seed, key);
+        return segment(hash).peek(seed, key, hash) != null;
     }
 
-    protected static class CacheKey {
-        protected int seed, x, z;
-
-        public CacheKey set(int seed, int x, int y) {
-            this.seed = seed;
-            this.x = x;
-            this.z = y;
-            return this;
+    public Stats getStats() {
+        long size = 0, hits = 0, misses = 0, evictions = 0, orphans = 0;
+        long prefetchHits = 0, prefetchReady = 0, prefetchWasted = 0;
+        for (var segment : segments) {
+            synchronized (segment) {
+                size += segment.size;
+                hits += segment.hits;
+                misses += segment.misses;
+                evictions += segment.evictions;
+                orphans += segment.orphans;
+                prefetchHits += segment.prefetchHits;
+                prefetchReady += segment.prefetchReady;
+                prefetchWasted += segment.prefetchWasted;
+            }
         }
+        return new Stats(size, hits, misses, evictions, orphans, prefetchHits, prefetchReady, prefetchWasted);
+    }
+
+    public void close() {
+        generator.close();
+    }
 
-        @Override
-        public boolean equals(Object obj) {
-            return obj instanceof CacheKey pos && seed == pos.seed && x == pos.x && z == pos.z;
+    public void addDebugInfo(List<String> lines) {
+        var stats = getStats();
+        lines.add("");
+        lines.add("[Terrain Cache]");
+        lines.add(String.format("Size: %s / %s", stats.size(), segments.length * segments[0].maxSize));
+        lines.add(String.format("Hits: %s (%.1f%%)", stats.hits(), stats.hitRatio() * 100));
+        lines.add(String.format("Misses: %s", stats.misses()));
+        lines.add(String.format("Evictions: %s", stats.evictions()));
+        lines.add(String.format("Orphans: %s", stats.orphans()));
+
+        if (generator.store != null) {
+            generator.store.addDebugInfo(lines);
         }
+    }
+
+    protected CompletableFuture<TerrainData> generate(int seed, long key, int lane) {
+        int chunkX = PosUtil.unpackLeft(key);
+        int chunkZ = PosUtil.unpackRight(key);
+        return ThreadPool.EXECUTOR.supply(() -> generator.generate(seed, chunkX, chunkZ), chunkX, chunkZ, lane);
+    }
+
+    protected Segment segment(long hash) {
+        return segments[(int) (hash >>> 32) & segmentMask];
+    }
+
+    protected static long hash(int seed, long key) {
+        return HashCommon.mix(key ^ (seed * 0x9E3779B97F4A7C15L));
+    }
 
-        @Override
-        public int hashCode() {
-            int result = seed;
-            result = 31 * result + x;
-            result = 31 * result + z;
-            return result;
+    public record Stats(long size, long hits, long misses, long evictions, long orphans,
+                        long prefetchHits, long prefetchReady, long prefetchWasted) {
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : hits / (double) total;
         }
     }
 
-    protected static class CacheValue implements Supplier<TerrainData> {
-        protected CacheKey key;
-        protected TerrainGenerator generator;
-        protected CompletableFuture<TerrainData> task;
+    /**
+     * A linear-probing table of chunk tasks. Entries that were never dropped (ie chunks that were
+     * hinted but never reached the decoration stage) are removed once they have been idle for
+     * longer than MAX_IDLE, or evicted least-recently-used first once the segment is full. Tasks
+     * that are still in-flight are only evicted when the table has no other free slot.
+     */
+    protected static class Segment {
+        protected final int mask;
+        protected final int maxSize;
+        protected final int[] seeds;
+        protected final long[] keys;
+        protected final long[] accessed;
+        protected final byte[] lanes;
+        protected final CompletableFuture<TerrainData>[] tasks;
+
+        protected int size;
+        protected int inserts;
+        protected long hits, misses, evictions, orphans;
+        protected long prefetchHits, prefetchReady, prefetchWasted;
+
+        @SuppressWarnings("unchecked")
+        protected Segment(int maxSize) {
+            int capacity = Mth.smallestEncompassingPowerOfTwo(maxSize * 2);
+            this.mask = capacity - 1;
+            this.maxSize = maxSize;
+            this.seeds = new int[capacity];
+            this.keys = new long[capacity];
+            this.accessed = new long[capacity];
+            this.lanes = new byte[capacity];
+            this.tasks = new CompletableFuture[capacity];
+        }
+
+        protected synchronized CompletableFuture<TerrainData> peek(int seed, long key, long hash) {
+            int index = indexOf(seed, key, hash);
+            return index < 0 ? null : tasks[index];
+        }
+
+        protected synchronized CompletableFuture<TerrainData> remove(int seed, long key, long hash) {
+            int index = indexOf(seed, key, hash);
+            if (index < 0) return null;
+
+            var task = tasks[index];
+            removeAt(index);
+            return task;
+        }
 
-        public CacheValue reset() {
-            key = null;
-            task = null;
-            generator = null;
-            return this;
+        protected synchronized CompletableFuture<TerrainData> computeIfAbsent(int seed, long key, long hash, int lane, TerrainCache cache) {
+            long now = System.nanoTime();
+
+            int index = indexOf(seed, key, hash);
+            if (index >= 0) {
+                hits++;
+                accessed[index] = now;
+
+                var task = tasks[index];
+                if (lanes[index] == WorkerPool.PREFETCH && lane != WorkerPool.PREFETCH) {
+                    // First real request for a prefetched chunk
+                    lanes[index] = (byte) lane;
+                    prefetchHits++;
+                    if (task.isDone()) prefetchReady++;
+                }
+
+                if (lane == WorkerPool.NORMAL && task instanceof WorkerPool.PoolFuture<TerrainData> future) {
+                    // Something now depends on this chunk so it can't wait behind the hint lane
+                    future.promote();
+                }
+
+                return task;
+            }
+
+            misses++;
+
+            if (++inserts >= SWEEP_INTERVAL) {
+                inserts = 0;
+                sweep(now);
+            }
+
+            if (size >= maxSize) {
+                evict();
+            }
+
+            // Removals may have shifted entries so the insertion point must be looked up again
+            index = ~indexOf(seed, key, hash);
+
+            var task = cache.generate(seed, key, lane);
+            seeds[index] = seed;
+            keys[index] = key;
+            tasks[index] = task;
+            accessed[index] = now;
+            lanes[index] = (byte) lane;
+            size++;
+
+            return task;
         }
 
-        @Override
-        public TerrainData get() {
-            return generator.generate(key.seed, key.x, key.z);
+        protected void sweep(long now) {
+            for (int i = 0; i <= mask; i++) {
+                var task = tasks[i];
+                if (task == null || !task.isDone() || now - accessed[i] < MAX_IDLE) continue;
+
+                countWasted(i);
+                removeAt(i);
+                orphans++;
+
+                // Re-check the slot as removal may have shifted another entry into it
+                i--;
+            }
+        }
+
+        protected void evict() {
+            int oldest = -1;
+            int oldestInFlight = -1;
+
+            for (int i = 0; i <= mask; i++) {
+                var task = tasks[i];
+                if (task == null) continue;
+
+                if (task.isDone()) {
+                    if (oldest == -1 || accessed[i] < accessed[oldest]) {
+                        oldest = i;
+                    }
+                } else if (oldestInFlight == -1 || accessed[i] < accessed[oldestInFlight]) {
+                    oldestInFlight = i;
+                }
+            }
+
+            // Prefer to let the table grow past maxSize rather than abandon in-flight work
+            if (oldest == -1 && size >= mask) {
+                oldest = oldestInFlight;
+            }
+
+            if (oldest != -1) {
+                countWasted(oldest);
+                removeAt(oldest);
+                evictions++;
+            }
+        }
+
+        protected void countWasted(int index) {
+            if (lanes[index] == WorkerPool.PREFETCH) {
+                prefetchWasted++;
+            }
+        }
+
+        protected int indexOf(int seed, long key, long hash) {
+            int index = (int) hash & mask;
+            while (tasks[index] != null) {
+                if (keys[index] == key && seeds[index] == seed) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return ~index;
+        }
+
+        protected void removeAt(int index) {
+            size--;
+
+            // Backward-shift deletion keeps probe sequences intact without tombstones
+            int next = index;
+            while (true) {
+                next = (next + 1) & mask;
+
+                if (tasks[next] == null) break;
+
+                int home = (int) hash(seeds[next], keys[next]) & mask;
+                if (index <= next ? (index < home && home <= next) : (index < home || home <= next)) {
+                    continue;
+                }
+
+                seeds[index] = seeds[next];
+                keys[index] = keys[next];
+                tasks[index] = tasks[next];
+                accessed[index] = accessed[next];
+                lanes[index] = lanes[next];
+                index = next;
+            }
+
+            tasks[index] = null;
         }
     }
 }
@@ -25,20 +25,28 @@
 package com.terraforged.mod.worldgen.terrain;
 
 import com.terraforged.engine.world.terrain.Terrain;
-import com.terraforged.mod.util.storage.FloatMap;
-import com.terraforged.mod.util.storage.ObjectMap;
+import com.terraforged.mod.util.storage.FixedFloatMap;
+import com.terraforged.mod.util.storage.PaletteMap;
+import com.terraforged.mod.util.storage.SqrtFloatMap;
+import com.terraforged.mod.util.storage.UnitFloatMap;
 import com.terraforged.mod.worldgen.noise.NoiseData;
 import com.terraforged.noise.util.NoiseUtil;
 
 import java.util.function.Consumer;
 
+/**
+ * Per-chunk terrain columns held in a compact form: heights as 16-bit fixed-point (the integer
+ * block height is exact), gradient as a 16-bit square-root encoding (so the small slopes that
+ * surfaces and viabilities threshold on stay precise), river as 8-bit unit values, and terrain
+ * types as a byte palette. Under half the size of the equivalent float/reference maps.
+ */
 public class TerrainData implements Consumer<NoiseData> {
     protected final TerrainLevels levels;
-    protected final FloatMap height = new FloatMap();
-    protected final FloatMap gradient = new FloatMap();
-    protected final FloatMap river = new FloatMap();
-    protected final FloatMap baseHeight = new FloatMap();
-    protected final ObjectMap<Terrain> terrain = new ObjectMap<>(Terrain[]::new);
+    protected final FixedFloatMap height;
+    protected final FixedFloatMap baseHeight;
+    protected final SqrtFloatMap gradient = new SqrtFloatMap();
+    protected final UnitFloatMap river = new UnitFloatMap();
+    protected final PaletteMap<Terrain> terrain = new PaletteMap<>(Terrain[]::new);
 
     protected float min = Float.MAX_VALUE;
     protected float max = Float.MIN_VALUE;
@@ -46,6 +54,8 @@ public class TerrainData implements Consumer<NoiseData> {
 
     public TerrainData(TerrainLevels levels) {
         this.levels = levels;
+        this.height = new FixedFloatMap(levels.minY, levels.maxY);
+        this.baseHeight = new FixedFloatMap(levels.minY, levels.maxY);
     }
 
     public int getMin() {
@@ -74,23 +84,23 @@ public class TerrainData implements Consumer<NoiseData> {
         return levels;
     }
 
-    public FloatMap getHeight() {
+    public FixedFloatMap getHeight() {
         return height;
     }
 
-    public FloatMap getBaseHeight() {
+    public FixedFloatMap getBaseHeight() {
         return baseHeight;
     }
 
-    public FloatMap getGradient() {
+    public SqrtFloatMap getGradient() {
         return gradient;
     }
 
-    public FloatMap getRiver() {
+    public UnitFloatMap getRiver() {
         return river;
     }
 
-    public ObjectMap<Terrain> getTerrain() {
+    public PaletteMap<Terrain> getTerrain() {
         return terrain;
     }
 
@@ -99,12 +109,21 @@ public class TerrainData implements Consumer<NoiseData> {
         return NoiseUtil.clamp(grad * norm, 0, 1);
     }
 
+    public void reset() {
+        terrain.clear();
+        min = Float.MAX_VALUE;
+        max = Float.MIN_VALUE;
+        maxBase = Float.MIN_VALUE;
+    }
+
     @Override
     public void accept(NoiseData noiseData) {
         var basemap = noiseData.getBase();
         var heightmap = noiseData.getHeight();
         var terrainMap = noiseData.getTerrain();
 
+        reset();
+
         for (int z = 0; z < 16; z++) {
             for (int x = 0; x < 16; x++) {
                 float heightNoise = heightmap.get(x, z);
@@ -128,9 +147,9 @@ public class TerrainData implements Consumer<NoiseData> {
                 height.set(x, z, scaledHeight);
                 baseHeight.set(x, z, scaledBaseLevel);
                 river.set(x, z, noiseData.getRiver().get(x, z));
-                max = Math.max(max, scaledHeight);
-                min = Math.min(min, scaledHeight);
-                maxBase = Math.max(maxBase, scaledBaseLevel);
+                max = Math.max(max, height.get(x, z));
+                min = Math.min(min, height.get(x, z));
+                maxBase = Math.max(maxBase, baseHeight.get(x, z));
             }
         }
     }
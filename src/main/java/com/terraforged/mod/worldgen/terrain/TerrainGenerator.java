@@ -26,16 +26,20 @@ package com.terraforged.mod.worldgen.terrain;
 
 import com.terraforged.mod.util.storage.ObjectPool;
 import com.terraforged.mod.worldgen.noise.INoiseGenerator;
+import org.jetbrains.annotations.Nullable;
 
 public class TerrainGenerator {
     protected final TerrainLevels levels;
     protected final INoiseGenerator noiseGenerator;
     protected final ObjectPool<TerrainData> terrainDataPool;
+    @Nullable
+    protected final TerrainStore store;
 
     public TerrainGenerator(TerrainLevels levels, INoiseGenerator noiseGenerator) {
         this.levels = levels;
         this.noiseGenerator = noiseGenerator;
         this.terrainDataPool = new ObjectPool<>(() -> new TerrainData(this.levels));
+        this.store = TerrainStore.create(noiseGenerator);
     }
 
     public INoiseGenerator getNoiseGenerator() {
@@ -48,10 +52,27 @@ public class TerrainGenerator {
 
     public TerrainData generate(int seed, int chunkX, int chunkZ) {
         var terrainData = terrainDataPool.take();
+
+        if (store != null && store.read(seed, chunkX, chunkZ, terrainData)) {
+            return terrainData;
+        }
+
         noiseGenerator.generate(seed, chunkX, chunkZ, terrainData);
+
+        if (store != null) {
+            store.write(seed, chunkX, chunkZ, terrainData);
+        }
+
         return terrainData;
     }
 
+    public void close() {
+        if (store != null) {
+            store.close();
+        }
+        noiseGenerator.close();
+    }
+
     public int getHeight(int seed, int x, int z) {
         float heightNoise = noiseGenerator.getHeightNoise(seed, x, z);
         float scaledHeight = levels.getScaledHeight(heightNoise);
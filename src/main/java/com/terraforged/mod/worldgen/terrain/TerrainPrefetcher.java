@@ -0,0 +1,217 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.terraforged.mod.worldgen.terrain;
+
+import com.terraforged.engine.util.pos.PosUtil;
+import com.terraforged.mod.worldgen.Seeds;
+import com.terraforged.mod.worldgen.util.ThreadPool;
+import com.terraforged.mod.worldgen.util.WorkerPool;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.longs.LongSets;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.nbt.visitors.CollectFields;
+import net.minecraft.nbt.visitors.FieldSelector;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.ChunkStatus;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Queues low-priority TerrainData generation for chunks just beyond the view distance in the
+ * direction each player is travelling, so that fast-moving players (elytra, boats) don't outrun
+ * the generator. The number of prefetches in flight at any time is capped by a budget.
+ * <p>
+ * Chunks that are loaded, cached, or already saved at or beyond the NOISE status are skipped, so
+ * travelling through explored terrain doesn't regenerate TerrainData that will never be used.
+ * Saved chunks are detected by scanning only the status field of the stored chunk.
+ */
+public class TerrainPrefetcher {
+    protected static final int BUDGET = Integer.getInteger("terraforged.prefetch.budget", ThreadPool.THREADS * 4);
+    protected static final int LOOKAHEAD_TICKS = Integer.getInteger("terraforged.prefetch.lookahead", 100);
+    protected static final int INTERVAL = 5;
+    protected static final int MAX_AHEAD = 32;
+    protected static final int MAX_STORED = 4096;
+    protected static final float MIN_SPEED = 0.35F;
+    protected static final float MAX_SPEED = 16F;
+    protected static final float SMOOTHING = 0.5F;
+
+    protected final TerrainCache terrainCache;
+    protected final Map<UUID, Motion> motions = new HashMap<>();
+    protected final LongOpenHashSet visited = new LongOpenHashSet();
+    protected final LongSet stored = LongSets.synchronize(new LongOpenHashSet());
+    protected final AtomicInteger inFlight = new AtomicInteger();
+    protected final AtomicLong issued = new AtomicLong();
+    protected final AtomicLong skipped = new AtomicLong();
+    protected final AtomicLong onDisk = new AtomicLong();
+
+    protected int ticks;
+
+    public TerrainPrefetcher(TerrainCache terrainCache) {
+        this.terrainCache = terrainCache;
+    }
+
+    public void tick(ServerLevel level) {
+        if (BUDGET <= 0 || ++ticks < INTERVAL) return;
+        ticks = 0;
+
+        int seed = Seeds.get(level);
+        int viewDistance = level.getServer().getPlayerList().getViewDistance();
+        var players = level.players();
+
+        motions.keySet().removeIf(id -> level.getPlayerByUUID(id) == null);
+
+        for (var player : players) {
+            var motion = motions.computeIfAbsent(player.getUUID(), id -> new Motion());
+            motion.update(player.getX(), player.getZ());
+
+            if (motion.speed() >= MIN_SPEED) {
+                prefetch(seed, level, viewDistance, motion);
+            }
+        }
+    }
+
+    protected void prefetch(int seed, ServerLevel level, int viewDistance, Motion motion) {
+        float speed = motion.speed();
+        float dirX = motion.vx / speed;
+        float dirZ = motion.vz / speed;
+
+        int chunkX = Mth.floor(motion.x) >> 4;
+        int chunkZ = Mth.floor(motion.z) >> 4;
+        int ahead = Math.min(MAX_AHEAD, (int) Math.ceil(speed * LOOKAHEAD_TICKS / 16));
+
+        visited.clear();
+
+        if (stored.size() >= MAX_STORED) {
+            stored.clear();
+        }
+
+        // Walk the leading edge nearest-first, widening across the full view width at each step
+        for (int distance = viewDistance; distance <= viewDistance + ahead; distance++) {
+            float centerX = chunkX + dirX * distance;
+            float centerZ = chunkZ + dirZ * distance;
+
+            for (int i = 0; i <= viewDistance * 2; i++) {
+                int lateral = (i & 1) == 0 ? i >> 1 : -((i + 1) >> 1);
+                int cx = Math.round(centerX - dirZ * lateral);
+                int cz = Math.round(centerZ + dirX * lateral);
+
+                long key = PosUtil.pack(cx, cz);
+                if (!visited.add(key) || stored.contains(key)) continue;
+                if (level.hasChunk(cx, cz) || terrainCache.contains(seed, cx, cz)) continue;
+
+                if (inFlight.get() >= BUDGET) {
+                    skipped.incrementAndGet();
+                    return;
+                }
+
+                inFlight.incrementAndGet();
+                prefetchIfUngenerated(seed, level, key, new ChunkPos(cx, cz));
+            }
+        }
+    }
+
+    protected void prefetchIfUngenerated(int seed, ServerLevel level, long key, ChunkPos pos) {
+        var fields = new CollectFields(new FieldSelector(StringTag.TYPE, "Status"));
+        var scanner = level.getChunkSource().chunkMap.chunkScanner();
+
+        scanner.scanChunk(pos, fields).whenComplete((result, error) -> {
+            if (error != null) {
+                inFlight.decrementAndGet();
+                return;
+            }
+
+            if (isGenerated(fields.getResult())) {
+                stored.add(key);
+                onDisk.incrementAndGet();
+                inFlight.decrementAndGet();
+                return;
+            }
+
+            issued.incrementAndGet();
+            terrainCache.getAsync(seed, pos, WorkerPool.PREFETCH)
+                    .whenComplete((data, e) -> inFlight.decrementAndGet());
+        });
+    }
+
+    protected static boolean isGenerated(Tag tag) {
+        if (!(tag instanceof CompoundTag chunk) || !chunk.contains("Status", Tag.TAG_STRING)) return false;
+
+        return ChunkStatus.byName(chunk.getString("Status")).isOrAfter(ChunkStatus.NOISE);
+    }
+
+    public void addDebugInfo(List<String> lines) {
+        var stats = terrainCache.getStats();
+        long issued = this.issued.get();
+        double hitRate = issued == 0 ? 0.0 : stats.prefetchHits() / (double) issued;
+
+        lines.add("");
+        lines.add("[Prefetch]");
+        lines.add(String.format("In Flight: %s / %s", inFlight.get(), BUDGET));
+        lines.add(String.format("Issued: %s, Over Budget: %s, On Disk: %s", issued, skipped.get(), onDisk.get()));
+        lines.add(String.format("Hits: %s (%.1f%%, ready: %s), Wasted: %s",
+                stats.prefetchHits(), hitRate * 100, stats.prefetchReady(), stats.prefetchWasted()));
+    }
+
+    protected static class Motion {
+        protected boolean initialized;
+        protected double x, z;
+        protected float vx, vz;
+
+        protected void update(double x, double z) {
+            if (initialized) {
+                float dx = (float) (x - this.x) / INTERVAL;
+                float dz = (float) (z - this.z) / INTERVAL;
+
+                if (dx * dx + dz * dz > MAX_SPEED * MAX_SPEED) {
+                    // Teleported rather than travelled
+                    vx = 0;
+                    vz = 0;
+                } else {
+                    vx += (dx - vx) * SMOOTHING;
+                    vz += (dz - vz) * SMOOTHING;
+                }
+            }
+
+            this.x = x;
+            this.z = z;
+            this.initialized = true;
+        }
+
+        protected float speed() {
+            return (float) Math.sqrt(vx * vx + vz * vz);
+        }
+    }
+}
@@ -0,0 +1,412 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.worldgen.terrain;
+
+import com.terraforged.engine.world.terrain.Terrain;
+import com.terraforged.engine.world.terrain.TerrainType;
+import com.terraforged.mod.TerraForged;
+import com.terraforged.mod.worldgen.noise.INoiseGenerator;
+import com.terraforged.noise.util.NoiseUtil;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Persists completed TerrainData to memory-mapped region files so that chunks which have already been
+ * generated (eg before a restart or a /tf regen) can be restored without re-running the noise stack.
+ * <p>
+ * Each region file holds 32x32 chunks in fixed-size slots. Heights are stored as 12.4 fixed-point
+ * values (which preserves the integer block height exactly), gradient in the same 16-bit square-root
+ * encoding that TerrainData holds it in, river noise as bytes, and terrain types as indices into a name
+ * palette shared by all regions (and all store instances) in the directory. Stores are keyed
+ * by the generator's config hash and the world seed so that changed settings never read stale data.
+ * <p>
+ * At most {@link #MAX_OPEN_REGIONS} region files are kept mapped; the least recently used are closed
+ * as new ones are opened.
+ */
+public class TerrainStore {
+    public static final String STORE_DIR = System.getProperty("terraforged.terrain_store");
+
+    protected static final int MAGIC = 0x54465244;
+    protected static final int VERSION = 4;
+    protected static final int PRESENT = 1;
+
+    protected static final int REGION_SIZE = 32;
+    protected static final int REGION_MASK = REGION_SIZE - 1;
+    protected static final int REGION_SHIFT = 5;
+    protected static final int REGION_CHUNKS = REGION_SIZE * REGION_SIZE;
+
+    protected static final int COLUMNS = 16 * 16;
+    protected static final int HEIGHT_UNITS = 16;
+    protected static final int MAX_HEIGHT = 0xFFFF;
+    protected static final int MAX_PALETTE_SIZE = 256;
+    protected static final int MAX_OPEN_REGIONS = Integer.getInteger("terraforged.terrain_store.max_regions", 64);
+
+    // Record layout
+    protected static final int HEIGHT_OFFSET = 0;
+    protected static final int BASE_OFFSET = HEIGHT_OFFSET + COLUMNS * 2;
+    protected static final int GRADIENT_OFFSET = BASE_OFFSET + COLUMNS * 2;
+    protected static final int RIVER_OFFSET = GRADIENT_OFFSET + COLUMNS * 2;
+    protected static final int TERRAIN_OFFSET = RIVER_OFFSET + COLUMNS;
+    protected static final int RECORD_SIZE = TERRAIN_OFFSET + COLUMNS;
+
+    // File layout
+    protected static final int HEADER_SIZE = 16;
+    protected static final int STATE_OFFSET = HEADER_SIZE;
+    protected static final int DATA_OFFSET = STATE_OFFSET + REGION_CHUNKS * 4;
+    protected static final int FILE_SIZE = DATA_OFFSET + REGION_CHUNKS * RECORD_SIZE;
+
+    private static final Map<Path, Palette> PALETTES = new ConcurrentHashMap<>();
+    private static final VarHandle STATE = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    protected final Path dir;
+    protected final long configHash;
+    protected final Palette palette;
+    protected final Map<RegionKey, Region> regions = new ConcurrentHashMap<>();
+    protected final Object evictLock = new Object();
+
+    protected final LongAdder reads = new LongAdder();
+    protected final LongAdder misses = new LongAdder();
+    protected final LongAdder writes = new LongAdder();
+
+    public TerrainStore(Path dir, long configHash) {
+        this.dir = dir;
+        this.configHash = configHash;
+        this.palette = Palette.of(dir.resolve("palette.txt"));
+    }
+
+    public boolean read(int seed, int chunkX, int chunkZ, TerrainData terrainData) {
+        var region = getRegion(seed, chunkX, chunkZ);
+        if (region == null) return false;
+
+        int slot = getSlot(chunkX, chunkZ);
+        var buffer = region.buffer;
+
+        if ((int) STATE.getAcquire(buffer, STATE_OFFSET + slot * 4) != PRESENT) {
+            misses.increment();
+            return false;
+        }
+
+        int offset = DATA_OFFSET + slot * RECORD_SIZE;
+
+        // Resolve the terrain palette up front so that a stale palette is treated as a miss
+        var terrains = palette.terrains;
+        for (int i = 0; i < COLUMNS; i++) {
+            int id = buffer.get(offset + TERRAIN_OFFSET + i) & 0xFF;
+            if (id >= terrains.length || terrains[id] == null) {
+                misses.increment();
+                return false;
+            }
+        }
+
+        terrainData.reset();
+
+        float min = Float.MAX_VALUE;
+        float max = Float.MIN_VALUE;
+        float maxBase = Float.MIN_VALUE;
+
+        for (int i = 0; i < COLUMNS; i++) {
+            float height = decodeHeight(buffer.getShort(offset + HEIGHT_OFFSET + i * 2));
+            float baseHeight = decodeHeight(buffer.getShort(offset + BASE_OFFSET + i * 2));
+
+            terrainData.height.set(i, height);
+            terrainData.baseHeight.set(i, baseHeight);
+            terrainData.gradient.setRaw(i, buffer.getShort(offset + GRADIENT_OFFSET + i * 2));
+            terrainData.river.set(i, decodeUnit(buffer.get(offset + RIVER_OFFSET + i)));
+            terrainData.terrain.set(i, terrains[buffer.get(offset + TERRAIN_OFFSET + i) & 0xFF]);
+
+            min = Math.min(min, height);
+            max = Math.max(max, height);
+            maxBase = Math.max(maxBase, baseHeight);
+        }
+
+        terrainData.min = min;
+        terrainData.max = max;
+        terrainData.maxBase = maxBase;
+
+        reads.increment();
+
+        return true;
+    }
+
+    public void write(int seed, int chunkX, int chunkZ, TerrainData terrainData) {
+        var region = getRegion(seed, chunkX, chunkZ);
+        if (region == null) return;
+
+        // Resolve every palette id before touching the slot so a full palette can't leave a partial record
+        var ids = new byte[COLUMNS];
+        for (int i = 0; i < COLUMNS; i++) {
+            int id = palette.getId(terrainData.terrain.get(i));
+            if (id == -1) return;
+
+            ids[i] = (byte) id;
+        }
+
+        int slot = getSlot(chunkX, chunkZ);
+        int offset = DATA_OFFSET + slot * RECORD_SIZE;
+        var buffer = region.buffer;
+
+        // Unpublish the slot while it is rewritten so a previous record is never read half-overwritten
+        STATE.setRelease(buffer, STATE_OFFSET + slot * 4, 0);
+
+        for (int i = 0; i < COLUMNS; i++) {
+            buffer.putShort(offset + HEIGHT_OFFSET + i * 2, encodeHeight(terrainData.height.get(i)));
+            buffer.putShort(offset + BASE_OFFSET + i * 2, encodeHeight(terrainData.baseHeight.get(i)));
+            buffer.putShort(offset + GRADIENT_OFFSET + i * 2, terrainData.gradient.getRaw(i));
+            buffer.put(offset + RIVER_OFFSET + i, encodeRiver(terrainData.river.get(i)));
+            buffer.put(offset + TERRAIN_OFFSET + i, ids[i]);
+        }
+
+        // Publish the slot only once the record is fully written
+        STATE.setRelease(buffer, STATE_OFFSET + slot * 4, PRESENT);
+
+        writes.increment();
+    }
+
+    public void close() {
+        for (var region : regions.values()) {
+            region.close();
+        }
+        regions.clear();
+    }
+
+    public void addDebugInfo(List<String> lines) {
+        lines.add(String.format("Store Reads: %s", reads.sum()));
+        lines.add(String.format("Store Misses: %s", misses.sum()));
+        lines.add(String.format("Store Writes: %s", writes.sum()));
+    }
+
+    @Nullable
+    protected Region getRegion(int seed, int chunkX, int chunkZ) {
+        var key = new RegionKey(seed, chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+
+        var region = regions.get(key);
+        if (region == null) {
+            region = regions.computeIfAbsent(key, this::openRegion);
+
+            if (regions.size() > MAX_OPEN_REGIONS) {
+                evictRegions();
+            }
+        }
+
+        if (region.buffer == null) return null;
+
+        region.lastAccess = System.nanoTime();
+        return region;
+    }
+
+    protected void evictRegions() {
+        synchronized (evictLock) {
+            while (regions.size() > MAX_OPEN_REGIONS) {
+                RegionKey oldestKey = null;
+                Region oldest = null;
+                for (var entry : regions.entrySet()) {
+                    if (oldest == null || entry.getValue().lastAccess < oldest.lastAccess) {
+                        oldestKey = entry.getKey();
+                        oldest = entry.getValue();
+                    }
+                }
+
+                if (oldest == null) return;
+
+                // The mapping outlives the channel so readers/writers still holding the region are unaffected
+                if (regions.remove(oldestKey, oldest)) {
+                    oldest.close();
+                }
+            }
+        }
+    }
+
+    protected Region openRegion(RegionKey key) {
+        var file = dir.resolve(Integer.toHexString(key.seed())).resolve("r." + key.x() + "." + key.z() + ".bin");
+
+        try {
+            Files.createDirectories(file.getParent());
+
+            var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getLong(8) != configHash) {
+                // New or incompatible file so reset the header and clear all slots
+                for (int i = 0; i < REGION_CHUNKS; i++) {
+                    buffer.putInt(STATE_OFFSET + i * 4, 0);
+                }
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putLong(8, configHash);
+            }
+
+            return new Region(channel, buffer);
+        } catch (IOException e) {
+            TerraForged.LOG.warn("Failed to open terrain region {}", file, e);
+            return Region.NONE;
+        }
+    }
+
+    protected static int getSlot(int chunkX, int chunkZ) {
+        return ((chunkZ & REGION_MASK) << REGION_SHIFT) | (chunkX & REGION_MASK);
+    }
+
+    protected static short encodeHeight(float scaledHeight) {
+        // Flooring into fixed-point keeps the integer block height identical when decoded
+        int value = NoiseUtil.floor(scaledHeight * HEIGHT_UNITS);
+        return (short) Math.max(0, Math.min(MAX_HEIGHT, value));
+    }
+
+    protected static float decodeHeight(short value) {
+        return (value & 0xFFFF) / (float) HEIGHT_UNITS;
+    }
+
+    protected static byte encodeRiver(float value) {
+        // Zero is meaningful (it marks river/lake water) so it must not be produced by rounding
+        if (value <= 0) return 0;
+        return (byte) Math.max(1, NoiseUtil.round(NoiseUtil.clamp(value, 0, 1) * 255));
+    }
+
+    protected static float decodeUnit(byte value) {
+        return (value & 0xFF) / 255F;
+    }
+
+    @Nullable
+    public static TerrainStore create(INoiseGenerator noiseGenerator) {
+        if (STORE_DIR == null || STORE_DIR.isBlank()) return null;
+
+        long configHash = noiseGenerator.getConfigHash();
+        var dir = Paths.get(STORE_DIR).resolve(Long.toHexString(configHash));
+
+        TerraForged.LOG.info("Using terrain store {}", dir.toAbsolutePath());
+
+        return new TerrainStore(dir, configHash);
+    }
+
+    protected record RegionKey(int seed, int x, int z) {}
+
+    protected static class Region {
+        protected static final Region NONE = new Region(null, null);
+
+        protected final FileChannel channel;
+        protected final MappedByteBuffer buffer;
+        protected volatile long lastAccess;
+
+        protected Region(FileChannel channel, MappedByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.lastAccess = System.nanoTime();
+        }
+
+        protected void close() {
+            if (channel == null) return;
+
+            try {
+                buffer.force();
+                channel.close();
+            } catch (IOException e) {
+                TerraForged.LOG.warn("Failed to close terrain region", e);
+            }
+        }
+    }
+
+    protected static class Palette {
+        protected final Path file;
+        protected final Reference2IntOpenHashMap<Terrain> ids = new Reference2IntOpenHashMap<>();
+        protected volatile Terrain[] terrains;
+
+        protected Palette(Path file) {
+            this.file = file;
+            this.ids.defaultReturnValue(-1);
+            this.terrains = load(file, ids);
+        }
+
+        protected static Palette of(Path file) {
+            // Stores for the same directory must agree on ids as they all append to the same file
+            return PALETTES.computeIfAbsent(file.toAbsolutePath().normalize(), Palette::new);
+        }
+
+        protected int getId(Terrain terrain) {
+            synchronized (ids) {
+                int id = ids.getInt(terrain);
+                if (id != -1) return id;
+
+                id = terrains.length;
+                if (id >= MAX_PALETTE_SIZE) return -1;
+
+                try {
+                    Files.createDirectories(file.getParent());
+                    Files.writeString(file, terrain.getName() + "\n", StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                } catch (IOException e) {
+                    TerraForged.LOG.warn("Failed to update terrain palette {}", file, e);
+                    return -1;
+                }
+
+                var copy = Arrays.copyOf(terrains, id + 1);
+                copy[id] = terrain;
+
+                ids.put(terrain, id);
+                terrains = copy;
+
+                return id;
+            }
+        }
+
+        protected static Terrain[] load(Path file, Reference2IntOpenHashMap<Terrain> ids) {
+            if (!Files.exists(file)) return new Terrain[0];
+
+            try {
+                var terrains = new ArrayList<Terrain>();
+                for (var name : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    if (name.isBlank()) continue;
+
+                    // Unknown names keep their slot so that the ids of later entries stay valid
+                    var terrain = TerrainType.get(name);
+                    if (terrain != null) {
+                        ids.put(terrain, terrains.size());
+                    }
+                    terrains.add(terrain);
+                }
+                return terrains.toArray(Terrain[]::new);
+            } catch (IOException e) {
+                TerraForged.LOG.warn("Failed to load terrain palette {}", file, e);
+                return new Terrain[0];
+            }
+        }
+    }
+}
@@ -72,11 +72,37 @@ public class ChunkUtil {
         }
     }
 
+    public static void fillNoiseBiomes(ChunkAccess chunk, Source source, GeneratorResource resource) {
+        var pos = chunk.getPos();
+        int biomeX = QuartPos.fromBlock(pos.getMinBlockX());
+        int biomeZ = QuartPos.fromBlock(pos.getMinBlockZ());
+        var heightAccessor = chunk.getHeightAccessorForGeneration();
+
+        var biomeBuffer = resource.biomeBuffer2D;
+        var tile = source.getBiomeTile(pos.x, pos.z);
+        for (int dz = 0; dz < 4; dz++) {
+            for (int dx = 0; dx < 4; dx++) {
+                var biome = source.getBiome(tile, biomeX + dx, biomeZ + dz);
+                biomeBuffer.set(dx, dz, biome);
+            }
+        }
+
+        for(int i = heightAccessor.getMinSection(); i < heightAccessor.getMaxSection(); ++i) {
+            var chunkSection = chunk.getSection(chunk.getSectionIndexFromSectionY(i));
+            chunkSection.fillBiomesFromNoise(biomeBuffer, Source.NOOP_CLIMATE_SAMPLER, 0, 0);
+        }
+    }
+
     public static void fillChunk(int seaLevel, ChunkAccess chunk, TerrainData terrainData, FillerBlock filler, GeneratorResource resource) {
         int limit = chunk.getMaxBuildHeight();
         int min = Math.min(limit, getLowestSection(terrainData));
         int max = Math.min(limit, getHighestSection(terrainData));
 
+        if (filler == FILLER) {
+            fillChunk(seaLevel, max, chunk, terrainData, resource.sectionWriter);
+            return;
+        }
+
         // @Optimization Note:
         // Here, we've precomputed a full stone chunk section and written it to a bytebuffer
         // which we are then reading into each chunk section below the lowest non-full chunk
@@ -99,6 +125,19 @@ public class ChunkUtil {
         }
     }
 
+    private static void fillChunk(int seaLevel, int max, ChunkAccess chunk, TerrainData terrainData, SectionWriter writer) {
+        // @Optimization Note:
+        // The default filler only places stone, water and air so each section is classified and
+        // written as a serialized palette in one go (see SectionWriter) rather than block by block.
+        writer.init(seaLevel, terrainData);
+
+        for (int sy = chunk.getMinBuildHeight(); sy <= max; sy += 16) {
+            int index = chunk.getSectionIndex(sy);
+            var section = chunk.getSection(index);
+            writer.write(sy, section);
+        }
+    }
+
     public static void primeHeightmaps(int seaLevel, ChunkAccess chunk, TerrainData terrainData, FillerBlock filler) {
         var solid = Blocks.STONE.defaultBlockState();
         var oceanFloor = chunk.getOrCreateHeightmapUnprimed(Heightmap.Types.OCEAN_FLOOR_WG);
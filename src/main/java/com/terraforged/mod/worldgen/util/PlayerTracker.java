@@ -0,0 +1,82 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.worldgen.util;
+
+import com.terraforged.engine.util.pos.PosUtil;
+import com.terraforged.mod.worldgen.GeneratorPreset;
+import net.minecraft.server.MinecraftServer;
+
+import java.util.Arrays;
+
+/**
+ * Keeps a per-tick snapshot of the chunk positions of all players in TerraForged levels so that
+ * world-gen work can be prioritised by its distance to the nearest player.
+ */
+public class PlayerTracker {
+    private static final long[] EMPTY = new long[0];
+
+    private static volatile long[] positions = EMPTY;
+
+    public static void tick(MinecraftServer server) {
+        var buffer = positions.length > 0 ? new long[positions.length] : new long[4];
+
+        int count = 0;
+        for (var level : server.getAllLevels()) {
+            if (!GeneratorPreset.isTerraForgedWorld(level)) continue;
+
+            for (var player : level.players()) {
+                if (count == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, count * 2);
+                }
+
+                var pos = player.chunkPosition();
+                buffer[count++] = PosUtil.pack(pos.x, pos.z);
+            }
+        }
+
+        positions = count == 0 ? EMPTY : Arrays.copyOf(buffer, count);
+    }
+
+    public static long[] getPositions() {
+        return positions;
+    }
+
+    /**
+     * @return the squared chunk distance to the nearest tracked player, or zero if there are none
+     */
+    public static long getDistance2(int chunkX, int chunkZ) {
+        var positions = PlayerTracker.positions;
+        if (positions.length == 0) return 0;
+
+        long min = Long.MAX_VALUE;
+        for (long pos : positions) {
+            long dx = chunkX - PosUtil.unpackLeft(pos);
+            long dz = chunkZ - PosUtil.unpackRight(pos);
+            min = Math.min(min, dx * dx + dz * dz);
+        }
+
+        return min;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.terraforged.mod.worldgen.util;
+
+import com.google.common.base.Suppliers;
+import com.terraforged.mod.worldgen.terrain.TerrainData;
+import com.terraforged.mod.worldgen.terrain.TerrainLevels;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Fills chunk sections with the default stone/water/air filler by writing the serialized form of
+ * the section's block-state container and reading it back in a single call, instead of setting
+ * each block individually.
+ * <p>
+ * Sections that contain a single block type are read from a precomputed single-value palette.
+ * Mixed sections are packed column-by-column into a 4-bit linear palette of [air, stone, water],
+ * which is the layout PalettedContainer uses for sections with up to 16 distinct states.
+ */
+public class SectionWriter {
+    private static final int BITS = 4;
+    private static final int VALUES_PER_LONG = 64 / BITS;
+    private static final int STORAGE_SIZE = 4096 / VALUES_PER_LONG;
+
+    private static final int AIR = 0;
+    private static final int STONE = 1;
+    private static final int WATER = 2;
+    private static final Supplier<BlockState[]> PALETTE = Suppliers.memoize(() -> new BlockState[]{
+            Blocks.AIR.defaultBlockState(),
+            Blocks.STONE.defaultBlockState(),
+            Blocks.WATER.defaultBlockState(),
+    });
+    private static final Supplier<ByteBuf[]> UNIFORM = Suppliers.memoize(SectionWriter::createUniformSections);
+
+    private final int[] solidY = new int[256];
+    private final int[] airY = new int[256];
+    private final long[] storage = new long[STORAGE_SIZE];
+    private final FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer(16 + STORAGE_SIZE * 8));
+    private final FriendlyByteBuf[] uniform = copyUniformSections();
+
+    private int minSolidY;
+    private int maxSolidY;
+    private int minAirY;
+    private int maxAirY;
+
+    public void init(int seaLevel, TerrainData terrainData) {
+        minSolidY = Integer.MAX_VALUE;
+        maxSolidY = Integer.MIN_VALUE;
+        minAirY = Integer.MAX_VALUE;
+        maxAirY = Integer.MIN_VALUE;
+
+        for (int z = 0, i = 0; z < 16; z++) {
+            for (int x = 0; x < 16; x++, i++) {
+                int solid = terrainData.getHeight(x, z);
+                int water = TerrainLevels.getWaterLevel(x, z, seaLevel, terrainData);
+                int air = Math.max(solid, water) + 1;
+
+                solidY[i] = solid;
+                airY[i] = air;
+                minSolidY = Math.min(minSolidY, solid);
+                maxSolidY = Math.max(maxSolidY, solid);
+                minAirY = Math.min(minAirY, air);
+                maxAirY = Math.max(maxAirY, air);
+            }
+        }
+    }
+
+    public void write(int startY, LevelChunkSection section) {
+        int endY = startY + 16;
+
+        FriendlyByteBuf data;
+        if (minSolidY >= endY - 1) {
+            data = getUniform(STONE);
+        } else if (maxAirY <= startY) {
+            data = getUniform(AIR);
+        } else if (maxSolidY < startY && minAirY >= endY) {
+            data = getUniform(WATER);
+        } else {
+            data = getMixed(startY, endY);
+        }
+
+        section.getStates().read(data);
+        section.recalcBlockCounts();
+    }
+
+    protected FriendlyByteBuf getUniform(int type) {
+        var data = uniform[type];
+        data.resetReaderIndex();
+        return data;
+    }
+
+    protected FriendlyByteBuf getMixed(int startY, int endY) {
+        Arrays.fill(storage, 0L);
+
+        for (int z = 0, i = 0; z < 16; z++) {
+            for (int x = 0; x < 16; x++, i++) {
+                int waterStart = Math.max(startY, solidY[i] + 1);
+                int stoneEnd = Math.min(endY, waterStart);
+                int waterEnd = Math.min(endY, airY[i]);
+
+                for (int y = startY; y < stoneEnd; y++) {
+                    set(x, y, z, STONE);
+                }
+
+                for (int y = waterStart; y < waterEnd; y++) {
+                    set(x, y, z, WATER);
+                }
+            }
+        }
+
+        var palette = PALETTE.get();
+        buffer.clear();
+        buffer.writeByte(BITS);
+        buffer.writeVarInt(palette.length);
+        for (var state : palette) {
+            buffer.writeVarInt(Block.BLOCK_STATE_REGISTRY.getId(state));
+        }
+        buffer.writeLongArray(storage);
+
+        return buffer;
+    }
+
+    protected void set(int x, int y, int z, long value) {
+        // Matches PalettedContainer.Strategy.SECTION_STATES index ordering (y, z, x)
+        int index = ((y & 15) << 8) | (z << 4) | x;
+        storage[index / VALUES_PER_LONG] |= value << ((index % VALUES_PER_LONG) * BITS);
+    }
+
+    protected static FriendlyByteBuf[] copyUniformSections() {
+        var sections = UNIFORM.get();
+        var copies = new FriendlyByteBuf[sections.length];
+        for (int i = 0; i < sections.length; i++) {
+            copies[i] = new FriendlyByteBuf(sections[i].copy());
+        }
+        return copies;
+    }
+
+    protected static ByteBuf[] createUniformSections() {
+        var palette = PALETTE.get();
+        var sections = new ByteBuf[palette.length];
+
+        for (int i = 0; i < palette.length; i++) {
+            // Single-value palette: zero bits, the state id, and an empty storage array
+            var buffer = new FriendlyByteBuf(Unpooled.buffer());
+            buffer.writeByte(0);
+            buffer.writeVarInt(Block.BLOCK_STATE_REGISTRY.getId(palette[i]));
+            buffer.writeLongArray(new long[0]);
+            sections[i] = buffer;
+        }
+
+        return sections;
+    }
+}
@@ -24,11 +24,18 @@
 
 package com.terraforged.mod.worldgen.util;
 
-import net.minecraft.Util;
+import com.terraforged.mod.Environment;
 
-import java.util.concurrent.Executor;
+import java.util.concurrent.CompletableFuture;
 
 public class ThreadPool {
-    // TODO: Consider using own service
-    public static final Executor EXECUTOR = Util.backgroundExecutor();
+    public static final int THREADS = Integer.getInteger("terraforged.worker_threads", Math.max(1, Environment.CORES - 1));
+    public static final WorkerPool EXECUTOR = new WorkerPool("TerraForged-Worker", THREADS);
+
+    public static <T> T join(CompletableFuture<T> future) {
+        if (future instanceof WorkerPool.PoolFuture<T> task) {
+            return task.joinHelping();
+        }
+        return future.join();
+    }
 }
@@ -0,0 +1,230 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.terraforged.mod.worldgen.util;
+
+import com.terraforged.mod.TerraForged;
+import com.terraforged.mod.worldgen.profiler.GenStage;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A fixed set of world-gen worker threads fed from a single priority queue. Tasks are ordered by lane
+ * (normal work before hints/prefetches), then by distance to the nearest player, then by submission order.
+ * <p>
+ * Work-stealing pools don't honour any ordering, so instead a thread waiting on a task that hasn't
+ * started yet can claim and run it itself (see {@link PoolFuture#joinHelping()}). This keeps nested
+ * joins (eg the erosion generator waiting on neighbour chunks) from starving the pool.
+ */
+public class WorkerPool implements Executor {
+    public static final int NORMAL = 0;
+    public static final int HINT = 1;
+    public static final int PREFETCH = 2;
+    protected static final int LANES = 3;
+
+    protected final String name;
+    protected final Thread[] workers;
+    protected final PriorityBlockingQueue<Entry> queue = new PriorityBlockingQueue<>(256);
+
+    protected final AtomicLong sequence = new AtomicLong();
+    protected final AtomicInteger active = new AtomicInteger();
+    protected final AtomicLong inlined = new AtomicLong();
+    protected final AtomicInteger[] queued = {new AtomicInteger(), new AtomicInteger(), new AtomicInteger()};
+    protected final GenStage[] waitTime = {new GenStage("Wait:"), new GenStage("Hint Wait:"), new GenStage("Prefetch Wait:")};
+    protected final GenStage[] runTime = {new GenStage("Run:"), new GenStage("Hint Run:"), new GenStage("Prefetch Run:")};
+
+    public WorkerPool(String name, int threads) {
+        this.name = name;
+        this.workers = new Thread[threads];
+
+        for (int i = 0; i < threads; i++) {
+            var worker = new Thread(this::work, name + "-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers[i] = worker;
+        }
+    }
+
+    public int getThreadCount() {
+        return workers.length;
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    public int getQueueDepth(int lane) {
+        return queued[lane].get();
+    }
+
+    public double getAverageWaitMS(int lane) {
+        return waitTime[lane].getAverageMS();
+    }
+
+    public double getAverageRunMS(int lane) {
+        return runTime[lane].getAverageMS();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        enqueue(new Job(command, NORMAL), 0);
+    }
+
+    public void execute(Runnable command, int chunkX, int chunkZ, int lane) {
+        enqueue(new Job(command, lane), PlayerTracker.getDistance2(chunkX, chunkZ));
+    }
+
+    public <T> PoolFuture<T> supply(Supplier<T> supplier, int chunkX, int chunkZ, int lane) {
+        var future = new PoolFuture<T>(this, chunkX, chunkZ);
+        future.job = new Job(() -> {
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }, lane);
+
+        enqueue(future.job, PlayerTracker.getDistance2(chunkX, chunkZ));
+
+        return future;
+    }
+
+    public void addDebugInfo(List<String> lines) {
+        lines.add("");
+        lines.add("[Worker Pool]");
+        lines.add(String.format("Active: %s / %s", active.get(), workers.length));
+        lines.add(String.format("Queued: %s (hints: %s, prefetch: %s)", queued[NORMAL].get(), queued[HINT].get(), queued[PREFETCH].get()));
+        lines.add(String.format("Inlined: %s", inlined.get()));
+        for (int lane = 0; lane < LANES; lane++) {
+            lines.add(String.format("%s %.2fms, %s %.2fms",
+                    waitTime[lane].name(), waitTime[lane].getAverageMS(),
+                    runTime[lane].name(), runTime[lane].getAverageMS()));
+        }
+    }
+
+    protected void enqueue(Job job, long distance) {
+        queued[job.lane].incrementAndGet();
+        queue.offer(new Entry(job, job.lane, distance, sequence.getAndIncrement()));
+    }
+
+    protected void work() {
+        while (true) {
+            Entry entry;
+            try {
+                entry = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            queued[entry.lane].decrementAndGet();
+
+            // The job may already have been run inline or via a promoted entry
+            if (!entry.job.claim()) continue;
+
+            long start = System.nanoTime();
+            waitTime[entry.lane].push(start - entry.job.created);
+
+            active.incrementAndGet();
+            try {
+                entry.job.runnable.run();
+            } catch (Throwable t) {
+                TerraForged.LOG.error("Uncaught exception in {}", Thread.currentThread().getName(), t);
+            } finally {
+                active.decrementAndGet();
+                runTime[entry.lane].push(System.nanoTime() - start);
+            }
+        }
+    }
+
+    protected record Entry(Job job, int lane, long distance, long sequence) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            if (lane != other.lane) return Integer.compare(lane, other.lane);
+            if (distance != other.distance) return Long.compare(distance, other.distance);
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    protected static class Job {
+        protected final int lane;
+        protected final long created = System.nanoTime();
+        protected final Runnable runnable;
+        protected final AtomicBoolean claimed = new AtomicBoolean();
+
+        protected Job(Runnable runnable, int lane) {
+            this.lane = lane;
+            this.runnable = runnable;
+        }
+
+        protected boolean isClaimed() {
+            return claimed.get();
+        }
+
+        protected boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    public static class PoolFuture<T> extends CompletableFuture<T> {
+        protected final WorkerPool pool;
+        protected final int chunkX, chunkZ;
+        protected final AtomicBoolean promoted = new AtomicBoolean();
+        protected Job job;
+
+        protected PoolFuture(WorkerPool pool, int chunkX, int chunkZ) {
+            this.pool = pool;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        /**
+         * Moves a pending hint into the normal lane. The original queue entry is left in place and
+         * becomes a no-op once either copy has been claimed.
+         */
+        public void promote() {
+            if (job.lane == NORMAL || job.isClaimed() || !promoted.compareAndSet(false, true)) return;
+
+            pool.queued[NORMAL].incrementAndGet();
+            pool.queue.offer(new Entry(job, NORMAL, PlayerTracker.getDistance2(chunkX, chunkZ), pool.sequence.getAndIncrement()));
+        }
+
+        /**
+         * Runs the task on the calling thread if no worker has picked it up yet, then joins.
+         */
+        public T joinHelping() {
+            if (!isDone() && job.claim()) {
+                pool.inlined.incrementAndGet();
+                job.runnable.run();
+            }
+            return join();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 TerraForged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+import com.terraforged.mod.data.ModTerrains;
+import com.terraforged.mod.worldgen.biome.IBiomeSampler;
+import com.terraforged.mod.worldgen.noise.INoiseGenerator;
+import com.terraforged.mod.worldgen.noise.NoiseGenerator;
+import com.terraforged.mod.worldgen.terrain.TerrainCache;
+import com.terraforged.mod.worldgen.terrain.TerrainData;
+import com.terraforged.mod.worldgen.terrain.TerrainLevels;
+import net.minecraft.world.level.ChunkPos;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless world-gen throughput benchmark. Generates an NxN chunk area through each stage of the
+ * terrain pipeline and reports chunks/s, p50/p99 latency, allocation rate and a determinism
+ * checksum per stage, plus the TerrainCache hit ratio. The noise and eroded stages are repeated on
+ * a second, independently constructed generator and must produce the same checksums. Exits
+ * non-zero if any chunk fails or any checksum disagrees.
+ * <p>
+ * Run with: gradlew benchmark -PbenchmarkArgs="size=32 threads=8 seed=1345"
+ */
+public class WorldGenBenchmark {
+    public static void main(String[] args) throws Exception {
+        var options = parse(args);
+        int size = Integer.parseInt(options.getOrDefault("size", "32"));
+        int seed = Integer.parseInt(options.getOrDefault("seed", "1345"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "" + Math.max(1, Runtime.getRuntime().availableProcessors() - 1)));
+
+        // Must be set before the worker pool is first touched
+        System.setProperty("terraforged.worker_threads", "" + threads);
+
+        var levels = new TerrainLevels();
+        var noise = new NoiseGenerator(levels, ModTerrains.Factory.getDefault(null));
+        var eroded = noise.withErosion();
+        var noise2 = new NoiseGenerator(levels, ModTerrains.Factory.getDefault(null));
+        var eroded2 = noise2.withErosion();
+        var terrainCache = new TerrainCache(levels, eroded);
+        var climate = new IBiomeSampler.Sampler(noise);
+
+        System.out.printf("Area: %sx%s chunks, threads: %s, seed: %s%n", size, size, threads, seed);
+
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            // Warm up on a separate area so the measured area is generated from a cold cache
+            int warmup = size * 4;
+            run("warmup", executor, size, warmup, warmup, (cx, cz) -> generate(seed, cx, cz, levels, eroded));
+
+            var results = new Result[] {
+                    run("noise", executor, size, 0, 0, (cx, cz) -> generate(seed, cx, cz, levels, noise)),
+                    run("eroded", executor, size, 0, 0, (cx, cz) -> generate(seed, cx, cz, levels, eroded)),
+                    run("biome", executor, size, 0, 0, (cx, cz) -> sampleClimate(seed, cx, cz, climate)),
+                    run("cache", executor, size, 0, 0, (cx, cz) -> hash(terrainCache.getNow(seed, new ChunkPos(cx, cz)))),
+                    run("cache-hit", executor, size, 0, 0, (cx, cz) -> hash(terrainCache.getNow(seed, new ChunkPos(cx, cz)))),
+                    // Independent generator with cold caches, run after the first so nothing is shared
+                    run("noise-2", executor, size, 0, 0, (cx, cz) -> generate(seed, cx, cz, levels, noise2)),
+                    run("eroded-2", executor, size, 0, 0, (cx, cz) -> generate(seed, cx, cz, levels, eroded2)),
+            };
+
+            System.out.printf("%n%-10s %10s %9s %9s %11s %18s%n", "stage", "chunks/s", "p50 ms", "p99 ms", "alloc MB/s", "checksum");
+            for (var result : results) {
+                result.print();
+            }
+
+            var stats = terrainCache.getStats();
+            System.out.printf("%nTerrain cache: hits=%s misses=%s ratio=%.1f%% evictions=%s%n",
+                    stats.hits(), stats.misses(), stats.hitRatio() * 100, stats.evictions());
+
+            // The cache generates through the eroded generator so all three must agree, and the
+            // independent generator must reproduce the first one's results
+            boolean deterministic = results[1].checksum == results[3].checksum
+                    && results[3].checksum == results[4].checksum
+                    && results[0].checksum == results[5].checksum
+                    && results[1].checksum == results[6].checksum;
+            System.out.println("Deterministic: " + deterministic);
+
+            int failures = Arrays.stream(results).mapToInt(Result::failures).sum();
+            System.out.println("Failures: " + failures);
+
+            if (!deterministic || failures > 0) {
+                System.exit(1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long generate(int seed, int chunkX, int chunkZ, TerrainLevels levels, INoiseGenerator generator) {
+        var terrainData = new TerrainData(levels);
+        var generated = new boolean[1];
+        generator.generate(seed, chunkX, chunkZ, noiseData -> {
+            terrainData.accept(noiseData);
+            generated[0] = true;
+        });
+
+        // Generators log and swallow their own errors, in which case the consumer is never called
+        if (!generated[0]) {
+            throw new IllegalStateException("Chunk " + chunkX + "," + chunkZ + " produced no data");
+        }
+
+        return hash(terrainData);
+    }
+
+    private static long sampleClimate(int seed, int chunkX, int chunkZ, IBiomeSampler.Sampler sampler) {
+        long hash = 0;
+        for (int dz = 0; dz < 16; dz += 4) {
+            for (int dx = 0; dx < 16; dx += 4) {
+                var sample = sampler.getSample(seed, (chunkX << 4) + dx, (chunkZ << 4) + dz);
+                hash = 31 * hash + Float.floatToIntBits(sample.biomeNoise);
+                hash = 31 * hash + sample.climateType.ordinal();
+            }
+        }
+        return hash;
+    }
+
+    private static long hash(TerrainData terrainData) {
+        long hash = 0;
+        for (int i = 0; i < 256; i++) {
+            hash = 31 * hash + Float.floatToIntBits(terrainData.getHeight().get(i));
+            hash = 31 * hash + Float.floatToIntBits(terrainData.getBaseHeight().get(i));
+            hash = 31 * hash + Float.floatToIntBits(terrainData.getGradient().get(i));
+            hash = 31 * hash + Float.floatToIntBits(terrainData.getRiver().get(i));
+            hash = 31 * hash + terrainData.getTerrain().get(i).getName().hashCode();
+        }
+        return hash;
+    }
+
+    private static Result run(String name, ExecutorService executor, int size, int offsetX, int offsetZ, ChunkTask task) throws Exception {
+        int count = size * size;
+        long[] latencies = new long[count];
+        long[] hashes = new long[count];
+        var failures = new AtomicInteger();
+        var futures = new Future<?>[count];
+
+        long allocatedStart = getAllocatedBytes();
+        long start = System.nanoTime();
+
+        for (int i = 0; i < count; i++) {
+            final int index = i;
+            final int chunkX = offsetX + (i % size);
+            final int chunkZ = offsetZ + (i / size);
+            futures[i] = executor.submit(() -> {
+                long taskStart = System.nanoTime();
+                try {
+                    hashes[index] = task.apply(chunkX, chunkZ);
+                } catch (Throwable t) {
+                    failures.incrementAndGet();
+                    t.printStackTrace();
+                }
+                latencies[index] = System.nanoTime() - taskStart;
+            });
+        }
+
+        for (var future : futures) {
+            future.get();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        long allocated = getAllocatedBytes() - allocatedStart;
+
+        // Fold in chunk order so the checksum is independent of scheduling
+        long checksum = 0;
+        for (long hash : hashes) {
+            checksum = 31 * checksum + hash;
+        }
+
+        if (failures.get() > 0) {
+            System.err.printf("%s: %s chunks failed%n", name, failures.get());
+        }
+
+        return new Result(name, count, elapsed, latencies, allocated, checksum, failures.get());
+    }
+
+    private static long getAllocatedBytes() {
+        var bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean threads)) return 0L;
+
+        long total = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) total += bytes;
+        }
+        return total;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        var options = new HashMap<String, String>();
+        for (var arg : args) {
+            int split = arg.indexOf('=');
+            if (split > 0) {
+                options.put(arg.substring(0, split), arg.substring(split + 1));
+            }
+        }
+        return options;
+    }
+
+    private interface ChunkTask {
+        long apply(int chunkX, int chunkZ);
+    }
+
+    private record Result(String name, int chunks, long elapsed, long[] latencies, long allocated, long checksum, int failures) {
+        void print() {
+            var sorted = latencies.clone();
+            Arrays.sort(sorted);
+
+            double seconds = elapsed / 1e9;
+            double p50 = sorted[(int) (sorted.length * 0.50)] / 1e6;
+            double p99 = sorted[Math.min(sorted.length - 1, (int) (sorted.length * 0.99))] / 1e6;
+            double allocRate = allocated / seconds / (1024 * 1024);
+
+            System.out.printf("%-10s %10.1f %9.2f %9.2f %11.1f %18x%n", name, chunks / seconds, p50, p99, allocRate, checksum);
+        }
+    }
+}